@@ -0,0 +1,64 @@
+/*	AdaptiveSampler.java
+
+	Samples a ParametricCurve so that consecutive points are about the same
+	distance apart (e.g. one pixel) instead of using a fixed angle increment.
+	Each step in the parameter is the desired spacing divided by the speed of
+	the curve (the length of its derivative), so slow parts of the curve are
+	not oversampled and fast parts do not have gaps.
+
+	The speed at the end of each step is also checked and the step is shortened
+	if the curve speeds up during it.  Steps are never longer than maxstep so
+	that points where the curve stops (e.g. the cusps of a hypocycloid) are not
+	stepped over.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class AdaptiveSampler
+{
+	final public static double	PIXELSPACING = 0.75;		// default distance between points in pixels
+	final public static double	MAXSTEP = Math.PI/32.0;		// default maximum change of the parameter
+
+	/* Sample the curve from tstart to tend (inclusive) into points and return the number of points */
+	public static int Sample(ParametricCurve curve, double tstart, double tend, PointBuffer points)
+	{
+		return Sample(curve, tstart, tend, PIXELSPACING, MAXSTEP, points);
+	}
+
+	public static int Sample(ParametricCurve curve, double tstart, double tend, double spacing,
+							 double maxstep, PointBuffer points)
+	{
+		double[] here = new double[4];
+		double[] next = new double[4];
+		double	 t, dt, speed, nextspeed;
+
+		points.Clear();
+		t = tstart;
+		curve.PointAt(t, here);
+		while (t < tend) {
+			points.Add(here[0], here[1]);
+
+			// predict the step from the speed here
+			speed = Math.hypot(here[2], here[3]);
+			dt = (speed * maxstep > spacing) ? spacing / speed : maxstep;
+			if (t + dt > tend)  dt = tend - t;
+			curve.PointAt(t + dt, next);
+
+			// if the curve is faster at the end of the step, shorten the step
+			nextspeed = Math.hypot(next[2], next[3]);
+			if (nextspeed > speed * 1.25 && nextspeed * dt > spacing) {
+				dt = spacing / nextspeed;
+				curve.PointAt(t + dt, next);
+			}
+
+			t += dt;
+			double[] temp = here;
+			here = next;
+			next = temp;
+		}
+		points.Add(here[0], here[1]);
+
+		return points.getSize();
+	}
+}
@@ -0,0 +1,221 @@
+/*	BatchRenderer.java
+
+	Renders a list of curves to PNG files without opening any windows, e.g. to
+	make a catalog of thousands of curves overnight.
+
+	java -Djava.awt.headless=true BatchRenderer [options] [file]
+
+	Each line of the file (or of standard input if there is no file or it is -)
+	describes one curve in the format read by CurveParms.Parse(), which starts
+	with the line that PolytrochoidTest2 prints when Enter is pressed.  Options:
+
+	-size WxH		size of the images in pixels (default 1000x1000)
+	-out dir		directory for the images (default .)
+	-points n		max number of points calculated per curve (default 1000000)
+	-threads n		number of images rendered at once (default: number of processors)
+	-curve name		read the lines as parameters of the named curve of CurveRegistry
+					(e.g. Lissajous or Hypotrochoids, see BuiltinCurves)
+
+	The images are named curve00001.png, ... in the order of the lines.  Each
+	image is calculated and drawn on one thread, and the images are rendered
+	in parallel on a fixed thread pool.  A tab-separated summary with the
+	calc, draw and write times of each image is printed to standard output.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+
+public class BatchRenderer
+{
+	private int			width = 1000, height = 1000;
+	private File		outdir = new File(".");
+	private int			maxpoints = CurveParms.MAXPOINTS;
+	private int			numthreads = Runtime.getRuntime().availableProcessors();
+	private String		inputname = "-";
+	private CurveProvider	curve;					// curve the lines describe (null for CurveParms lines)
+
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		BatchRenderer batch = new BatchRenderer();
+		if (!batch.ParseArgs(args)) {
+			System.err.println("Usage: java BatchRenderer [-size WxH] [-out dir] [-points n] [-threads n] [-curve name] [file]");
+			System.exit(1);
+		}
+		try {
+			batch.Run();
+		}
+		catch (IOException e) {
+			System.err.println("Error in Run(): " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/* Read the command-line options (returns false if they are invalid) */
+	private boolean ParseArgs(String[] args)
+	{
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-size") && i+1 < args.length) {
+					String[] size = args[++i].split("x");
+					if (size.length != 2)  return false;
+					width = Integer.parseInt(size[0]);
+					height = Integer.parseInt(size[1]);
+				}
+				else if (args[i].equals("-out") && i+1 < args.length)  outdir = new File(args[++i]);
+				else if (args[i].equals("-points") && i+1 < args.length)  maxpoints = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-threads") && i+1 < args.length)  numthreads = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-curve") && i+1 < args.length) {
+					curve = CurveRegistry.Find(args[++i]);
+					if (curve == null) {
+						System.err.println("Error in ParseArgs(): there is no curve named " + args[i]);
+						return false;
+					}
+					if (curve.getDefaultParameters() == null) {
+						System.err.println("Error in ParseArgs(): " + curve + " can only be drawn in its window");
+						return false;
+					}
+				}
+				else if (args[i].startsWith("-") && args[i].length() > 1)  return false;
+				else  inputname = args[i];
+			}
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+		return width > 0 && height > 0 && maxpoints > 0 && numthreads > 0;
+	}
+
+	/* Render every curve in the input and print the summary */
+	private void Run() throws IOException
+	{
+		List<String> curves = ReadCurves();
+		List<Future<String>> results = new ArrayList<Future<String>>(curves.size());
+		ExecutorService pool = Executors.newFixedThreadPool(numthreads);
+		long start = System.nanoTime();
+
+		if (!outdir.isDirectory() && !outdir.mkdirs())
+			throw new IOException("can't create the directory " + outdir);
+		for (int i = 0; i < curves.size(); i++) {
+			results.add(pool.submit(new RenderTask(curves.get(i), new File(outdir, String.format("curve%05d.png", i+1)))));
+		}
+		pool.shutdown();
+
+		// print the results in the order of the input as they finish
+		int failed = 0;
+		System.out.println("file\tpoints\tpixels\tcalc ms\tdraw ms\twrite ms\tparameters");
+		for (int i = 0; i < results.size(); i++) {
+			try {
+				System.out.println(results.get(i).get());
+			}
+			catch (ExecutionException e) {
+				System.err.println("Error in Run(): curve " + (i+1) + " (" + curves.get(i) + "): " + e.getCause());
+				++failed;
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		System.out.println(String.format("# %d curves (%d failed) in %.3f sec on %d threads", curves.size(), failed,
+										 (System.nanoTime() - start) * 0.000000001, numthreads));
+	}
+
+	/* Read the parameters of every curve, skipping blank lines, comments and (for
+	   CurveParms lines) lines that can't be read */
+	private List<String> ReadCurves() throws IOException
+	{
+		List<String> curves = new ArrayList<String>();
+		BufferedReader in;
+		String line;
+
+		if (inputname.equals("-"))  in = new BufferedReader(new InputStreamReader(System.in));
+		else  in = new BufferedReader(new FileReader(inputname));
+		try {
+			while ((line = in.readLine()) != null) {
+				if (curve != null) {
+					line = line.trim();
+					if (line.length() > 0 && !line.startsWith("#"))  curves.add(line);
+				}
+				else {
+					CurveParms parms = CurveParms.Parse(line);
+					if (parms != null)  curves.add(parms.toString());
+				}
+			}
+		}
+		finally {
+			in.close();
+		}
+		return curves;
+	}
+
+	/** Calculates, draws and writes one curve and returns its line of the summary */
+	private class RenderTask implements Callable<String>
+	{
+		private String		parameters;
+		private File		file;
+
+		public RenderTask(String parameters, File file)
+		{
+			this.parameters = parameters;
+			this.file = file;
+		}
+
+		public String call() throws IOException
+		{
+			PointBuffer	points = new PointBuffer();
+			double		scale = 1.0;
+			long		start, calctime, drawingtime, writetime;
+			int			pixels;
+
+			start = System.nanoTime();
+			if (curve == null) {
+				CurveParms parms = CurveParms.Parse(parameters);
+				parms.Calculate(CurveParms.DrawingRadius(width, height), parms.PointDensity(maxpoints), points);
+			}
+			else {
+				// the curve is calculated with radius 1 and scaled when it is drawn
+				if (!curve.Evaluate(parameters, maxpoints, points))
+					throw new IllegalArgumentException("can't calculate " + curve);
+				scale = CurveParms.DrawingRadius(width, height);
+			}
+			calctime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = image.createGraphics();
+			g.setColor(Color.white);
+			g.fillRect(0, 0, width, height);
+			g.setColor(Color.blue);
+			pixels = CurveParms.Draw(g, points, width * 0.5, height * 0.5, scale);
+			g.dispose();
+			drawingtime = System.nanoTime() - start;
+
+			start = System.nanoTime();
+			ImageIO.write(image, "png", file);
+			writetime = System.nanoTime() - start;
+
+			return String.format("%s\t%d\t%d\t%.1f\t%.1f\t%.1f\t%s", file.getName(), points.getSize(), pixels,
+								 calctime * 0.000001, drawingtime * 0.000001, writetime * 0.000001, parameters);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+/*	BuiltinCurves.java
+
+	The CurveProviders for the curves that come with Circles and Spirals,
+	listed in META-INF/services/CurveProvider.  Each one only gives the name
+	of its window's class, so the windows are loaded when they are first
+	opened instead of when the program starts.
+
+	The circle, the Lissajous curve and the trochoids can also be calculated
+	without their windows.  Their parameters are:
+
+	Circle					radius (as a fraction of 1, default 1)
+	Lissajous				a b p, for x = sin(at + pπ/8), y = sin(bt)
+	Hypotrochoids			a CurveParms line with 2 radii (outer and inner)
+	Polytrochoids			a CurveParms line
+	Lissajous Trochoids		a CurveParms line with a lissajous field
+
+	The spirals and the gallery can only be drawn in their windows.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+
+public class BuiltinCurves
+{
+	/* Calculate a CurveParms line with at most maxpoints points (returns false if it can't be read) */
+	private static boolean EvaluateParms(String parameters, int maxpoints, PointBuffer points)
+	{
+		CurveParms parms = CurveParms.Parse(parameters);
+
+		if (parms == null)  return false;
+		parms.Calculate(1.0, parms.PointDensity(maxpoints), points);
+		return true;
+	}
+
+	private static double ParmsPeriod(String parameters)
+	{
+		CurveParms parms = CurveParms.Parse(parameters);
+
+		return (parms == null) ? 0.0 : parms.getRevolutions();
+	}
+
+	/** The unit circle */
+	public static class CircleProvider extends CurveProvider
+	{
+		public String getName()		{ return "Circle"; }
+		public String getMenu()		{ return "Curves"; }
+		public int getOrder()		{ return 10; }
+		public String getWindowClass()	{ return "Circle"; }
+
+		public String getDefaultParameters()
+		{
+			return "1";
+		}
+
+		public double Period(String parameters)
+		{
+			return 1.0;
+		}
+
+		public boolean Evaluate(String parameters, int maxpoints, PointBuffer points)
+		{
+			double radius;
+
+			try {
+				radius = Double.parseDouble(parameters.trim());
+			}
+			catch (NumberFormatException e) {
+				System.err.println("Error in Evaluate(): can't read the radius \"" + parameters + "\"");
+				return false;
+			}
+			int count = Math.max(2, Math.min(maxpoints, CurveParms.MAXDENSITY + 1));
+			double angleincr = 2.0 * Math.PI / (count - 1);
+			points.SetSize(count);
+			double[] xs = points.getX();
+			double[] ys = points.getY();
+			for (int n = 0; n < count; n++) {
+				xs[n] = radius * Math.cos(n * angleincr);
+				ys[n] = radius * Math.sin(n * angleincr);
+			}
+			return true;
+		}
+	}
+
+	/** Lissajous curves with integer frequencies */
+	public static class LissajousProvider extends CurveProvider
+	{
+		public String getName()		{ return "Lissajous"; }
+		public String getMenu()		{ return "Curves"; }
+		public int getOrder()		{ return 20; }
+		public String getWindowClass()	{ return "LissajousCurve"; }
+
+		public String getDefaultParameters()
+		{
+			return "1\t2\t0";
+		}
+
+		public double Period(String parameters)
+		{
+			return 1.0;
+		}
+
+		public boolean Evaluate(String parameters, int maxpoints, PointBuffer points)
+		{
+			String[] fields = parameters.trim().split("\\s+");
+			int		 xfrequency, yfrequency, phase;
+
+			try {
+				if (fields.length != 3)  throw new NumberFormatException("3 values are needed");
+				xfrequency = Integer.parseInt(fields[0]);
+				yfrequency = Integer.parseInt(fields[1]);
+				phase = Integer.parseInt(fields[2]);
+			}
+			catch (NumberFormatException e) {
+				System.err.println("Error in Evaluate(): " + e.getMessage() + " in \"" + parameters + "\"");
+				return false;
+			}
+			int count = Math.max(2, Math.min(maxpoints, CurveParms.MAXDENSITY + 1));
+			double angleincr = 2.0 * Math.PI / (count - 1);
+			double phaseshift = 0.125 * phase * Math.PI;
+			points.SetSize(count);
+			double[] xs = points.getX();
+			double[] ys = points.getY();
+			for (int n = 0; n < count; n++) {
+				xs[n] = Math.sin(xfrequency * n * angleincr + phaseshift);
+				ys[n] = Math.sin(yfrequency * n * angleincr);
+			}
+			return true;
+		}
+	}
+
+	public static class ArchimedeanProvider extends CurveProvider
+	{
+		public String getName()		{ return "Archimedean Spiral"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 10; }
+		public String getWindowClass()	{ return "LinearSpiral"; }
+	}
+
+	public static class FermatProvider extends CurveProvider
+	{
+		public String getName()		{ return "Fermat's Spiral"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 20; }
+		public String getWindowClass()	{ return "ParabolicSpiral"; }
+	}
+
+	public static class LogarithmicProvider extends CurveProvider
+	{
+		public String getName()		{ return "Logarithmic Spiral"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 30; }
+		public String getWindowClass()	{ return "LogarithmicSpiral"; }
+	}
+
+	public static class HyperbolicProvider extends CurveProvider
+	{
+		public String getName()		{ return "Hyperbolic Spiral"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 40; }
+		public String getWindowClass()	{ return "HyperbolicSpiral"; }
+	}
+
+	public static class LituusProvider extends CurveProvider
+	{
+		public String getName()		{ return "Lituus"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 50; }
+		public String getWindowClass()	{ return "Lituus"; }
+	}
+
+	public static class DoubleLituusProvider extends CurveProvider
+	{
+		public String getName()		{ return "Double Lituus"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 60; }
+		public String getWindowClass()	{ return "DoubleLituus"; }
+	}
+
+	public static class AnthonySpiralProvider extends CurveProvider
+	{
+		public String getName()		{ return "Anthony's Spiral"; }
+		public String getMenu()		{ return "Spirals"; }
+		public int getOrder()		{ return 70; }
+		public String getWindowClass()	{ return "AnthonySpiral"; }
+	}
+
+	/** Hypotrochoids as polytrochoids of 2 circles */
+	public static class HypotrochoidProvider extends CurveProvider
+	{
+		public String getName()		{ return "Hypotrochoids"; }
+		public String getMenu()		{ return "Trochoids"; }
+		public int getOrder()		{ return 10; }
+		public String getWindowClass()	{ return "HypotrochoidTest2"; }
+
+		public String getDefaultParameters()
+		{
+			// the curve HypotrochoidTest2 starts with (48 lobes, 17 revolutions)
+			return "0\t48\t17\tpen=0.75";
+		}
+
+		public double Period(String parameters)
+		{
+			return ParmsPeriod(parameters);
+		}
+
+		public boolean Evaluate(String parameters, int maxpoints, PointBuffer points)
+		{
+			CurveParms parms = CurveParms.Parse(parameters);
+
+			if (parms == null)  return false;
+			if (parms.getRadii().length != 2 || parms.IsLissajous()) {
+				System.err.println("Error in Evaluate(): a hypotrochoid has 2 radii and no lissajous field in \"" +
+								   parameters + "\"");
+				return false;
+			}
+			parms.Calculate(1.0, parms.PointDensity(maxpoints), points);
+			return true;
+		}
+	}
+
+	public static class PolytrochoidProvider extends CurveProvider
+	{
+		public String getName()		{ return "Polytrochoids"; }
+		public String getMenu()		{ return "Trochoids"; }
+		public int getOrder()		{ return 20; }
+		public String getWindowClass()	{ return "PolytrochoidTest2"; }
+
+		public String getDefaultParameters()
+		{
+			return "0\t1\t27\t9\tpen=1.0";
+		}
+
+		public double Period(String parameters)
+		{
+			return ParmsPeriod(parameters);
+		}
+
+		public boolean Evaluate(String parameters, int maxpoints, PointBuffer points)
+		{
+			return EvaluateParms(parameters, maxpoints, points);
+		}
+	}
+
+	public static class LissajousTrochoidProvider extends CurveProvider
+	{
+		public String getName()		{ return "Lissajous Trochoids"; }
+		public String getMenu()		{ return "Trochoids"; }
+		public int getOrder()		{ return 30; }
+		public String getWindowClass()	{ return "LissajousTrochoid"; }
+
+		public String getDefaultParameters()
+		{
+			return "0\t1\t27\t9\tpen=1.0\tlissajous=1,2,0";
+		}
+
+		public double Period(String parameters)
+		{
+			return ParmsPeriod(parameters);
+		}
+
+		public boolean Evaluate(String parameters, int maxpoints, PointBuffer points)
+		{
+			return EvaluateParms(parameters, maxpoints, points);
+		}
+	}
+
+	public static class GalleryProvider extends CurveProvider
+	{
+		public String getName()		{ return "Polytrochoid Gallery"; }
+		public String getMenu()		{ return "Trochoids"; }
+		public int getOrder()		{ return 40; }
+		public String getWindowClass()	{ return "PolytrochoidGallery"; }
+	}
+}
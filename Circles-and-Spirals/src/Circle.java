@@ -45,17 +45,28 @@ public class Circle extends JFrame
 		final double arcstart = 0.0;				// angle of beginning of arc
 		final double arclen = 2.0*Math.PI;			// arclength of arc (in radians)
 		final double arcend = arcstart + arclen;	// angle of end of arc
-		final double angleincr = Math.PI/5000.0;	// increment at which to draw points
-		double	x, y;
+		PointBuffer points = new PointBuffer();
+		double[] xs, ys;
 
 		super.paint(g);
 		g.setColor( Color.blue );
 		
-		// draw points along a circle/arc from arcstart to arcend radians
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
-			x = centerx + radius * Math.cos(angle);
-			y = centery - radius * Math.sin(angle);
-			drawPoint(g, x, y);
+		// calculate points about one pixel apart along a circle/arc from arcstart to arcend radians
+		AdaptiveSampler.Sample(new ParametricCurve() {
+			public void PointAt(double angle, double[] result)
+			{
+				result[0] = radius * Math.cos(angle);
+				result[1] = radius * Math.sin(angle);
+				result[2] = -result[1];
+				result[3] = result[0];
+			}
+		}, arcstart, arcend, points);
+		
+		// draw the points relative to our "drawing origin"
+		xs = points.getX();
+		ys = points.getY();
+		for (int i = 0; i < points.getSize(); i++) {
+			drawPoint(g, centerx + xs[i], centery - ys[i]);
 		}
 	}
 
@@ -0,0 +1,101 @@
+/*	CurveBenchmark.java
+
+	Times the calculation and drawing of every curve in CurveRegistry that
+	can be calculated without a window, with its default parameters, so that
+	new curves are benchmarked as soon as they are registered.
+
+	java CurveBenchmark [-points n] [-passes n] [-size n] [name ...]
+
+	calculates at most n points (default 1000000) of each curve (or only of
+	the named curves) and draws them in an image of n x n pixels (default
+	1000), and prints the fastest of the passes (default 5) as a
+	tab-separated table.  The first pass is not counted, since it includes
+	loading the curve's classes and compiling them.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+
+public class CurveBenchmark
+{
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		List<CurveProvider> curves = new ArrayList<CurveProvider>();
+		int		maxpoints = CurveParms.MAXPOINTS, passes = 5, size = 1000;
+
+		try {
+			for (int i = 0; i < args.length; i++) {
+				if (args[i].equals("-points") && i+1 < args.length)  maxpoints = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-passes") && i+1 < args.length)  passes = Integer.parseInt(args[++i]);
+				else if (args[i].equals("-size") && i+1 < args.length)  size = Integer.parseInt(args[++i]);
+				else {
+					CurveProvider curve = CurveRegistry.Find(args[i]);
+					if (curve == null) {
+						System.err.println("Error in CurveBenchmark: there is no curve named " + args[i]);
+						System.exit(1);
+					}
+					curves.add(curve);
+				}
+			}
+		}
+		catch (NumberFormatException e) {
+			passes = 0;
+		}
+		if (maxpoints <= 0 || passes <= 0 || size <= 0) {
+			System.err.println("Usage: java CurveBenchmark [-points n] [-passes n] [-size n] [name ...]");
+			System.exit(1);
+		}
+		if (curves.isEmpty())  curves.addAll(CurveRegistry.getCurves());
+
+		System.out.println("curve\tperiod\tpoints\tpixels\tcalc ms\tdraw ms\tMpoints/s\tparameters");
+		for (CurveProvider curve : curves) {
+			String parameters = curve.getDefaultParameters();
+			if (parameters == null)  continue;
+			String result = Run(curve, parameters, maxpoints, passes, size);
+			if (result != null)  System.out.println(result);
+		}
+	}
+
+	/* Time one curve and return its line of the table (or null if it can't be calculated) */
+	private static String Run(CurveProvider curve, String parameters, int maxpoints, int passes, int size)
+	{
+		PointBuffer	points = new PointBuffer();
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		double		scale = CurveParms.DrawingRadius(size, size);
+		long		calctime = Long.MAX_VALUE, drawingtime = Long.MAX_VALUE, start;
+		int			pixels = 0;
+
+		for (int pass = 0; pass <= passes; pass++) {
+			start = System.nanoTime();
+			if (!curve.Evaluate(parameters, maxpoints, points))  return null;
+			long calc = System.nanoTime() - start;
+
+			Graphics2D g = image.createGraphics();
+			start = System.nanoTime();
+			g.setColor(Color.white);
+			g.fillRect(0, 0, size, size);
+			g.setColor(Color.blue);
+			pixels = CurveParms.Draw(g, points, size * 0.5, size * 0.5, scale);
+			long drawing = System.nanoTime() - start;
+			g.dispose();
+
+			// (pass 0 only warms up)
+			if (pass > 0) {
+				calctime = Math.min(calctime, calc);
+				drawingtime = Math.min(drawingtime, drawing);
+			}
+		}
+		return String.format("%s\t%.6g\t%d\t%d\t%.2f\t%.2f\t%.1f\t%s", curve.getName(), curve.Period(parameters),
+							 points.getSize(), pixels, calctime * 0.000001, drawingtime * 0.000001,
+							 points.getSize() * 1000.0 / Math.max(calctime, 1), parameters.replace('\t', ' '));
+	}
+}
@@ -0,0 +1,120 @@
+/*	CurveCache.java
+
+	Keeps the points of recently drawn curves so that going back to an earlier
+	set of parameters (e.g. pressing [ and then ]) doesn't recalculate the curve.
+
+	Curves are looked up by a key string that must contain every parameter
+	that affects the calculated points.  The least recently used curves are
+	evicted when the buffers use more than the byte budget.  A cached
+	PointBuffer is shared by everyone who gets it, so it must not be changed.
+
+	The methods are synchronized so that the statistics can be read on the
+	Event Dispatch Thread while a render worker uses the cache.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+public class CurveCache
+{
+	final public static long	DEFAULTBUDGET = 128L << 20;		// 128 MB
+
+	private LinkedHashMap<String, PointBuffer>	curves;		// in order from least to most recently used
+	private long		budget;						// max number of bytes used by the buffers
+	private long		bytesused;
+	private long		hits, misses;
+
+	public CurveCache()
+	{
+		this(DEFAULTBUDGET);
+	}
+
+	public CurveCache(long budget)
+	{
+		curves = new LinkedHashMap<String, PointBuffer>(16, 0.75f, true);
+		this.budget = budget;
+		bytesused = hits = misses = 0;
+	}
+
+	/* Returns the cached points for key (or null if they aren't cached) */
+	public synchronized PointBuffer Get(String key)
+	{
+		PointBuffer points = curves.get(key);
+
+		if (points != null)  ++hits;
+		else  ++misses;
+		return points;
+	}
+
+	/* Add the points for key, evicting the least recently used curves to stay
+	   within the budget.  Curves bigger than the whole budget aren't cached. */
+	public synchronized void Put(String key, PointBuffer points)
+	{
+		long size = BytesUsed(points);
+
+		if (size > budget)  return;
+		PointBuffer old = curves.put(key, points);
+		if (old != null)  bytesused -= BytesUsed(old);
+		bytesused += size;
+		Evict();
+	}
+
+	public synchronized void SetBudget(long budget)
+	{
+		this.budget = budget;
+		Evict();
+	}
+
+	public synchronized void Clear()
+	{
+		curves.clear();
+		bytesused = 0;
+	}
+
+	public synchronized long getBudget()
+	{
+		return budget;
+	}
+
+	public synchronized long getBytesUsed()
+	{
+		return bytesused;
+	}
+
+	public synchronized int getCount()
+	{
+		return curves.size();
+	}
+
+	public synchronized long getHits()
+	{
+		return hits;
+	}
+
+	public synchronized long getMisses()
+	{
+		return misses;
+	}
+
+	/* Remove the least recently used curves until we are within the budget */
+	private void Evict()
+	{
+		Iterator<Map.Entry<String, PointBuffer>> it = curves.entrySet().iterator();
+
+		while (bytesused > budget && it.hasNext()) {
+			bytesused -= BytesUsed(it.next().getValue());
+			it.remove();
+		}
+	}
+
+	/* Memory used by the coordinate arrays of a buffer (which may be longer than its size) */
+	private static long BytesUsed(PointBuffer points)
+	{
+		return 16L * points.getX().length;
+	}
+}
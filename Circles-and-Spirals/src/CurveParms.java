@@ -0,0 +1,276 @@
+/*	CurveParms.java
+
+	One set of parameters for a polytrochoid or a Lissajous trochoid, which can
+	be read from and written to a line of text, calculated and drawn without a
+	window (e.g. by BatchRenderer).
+
+	The text format is the line printed when Enter is pressed in
+	PolytrochoidTest2, followed by optional name=value fields:
+
+	revolutions<TAB>radius1<TAB>radius2...[<TAB>pen=1.0][<TAB>lissajous=a,b,p]
+
+	Revolutions may be 0 to calculate the number needed to close the curve.
+	The pen position is a multiple of the innermost radius (1.0 by default).
+	With a lissajous field the trochoids roll along the Lissajous curve
+	x = sin(at + pπ/8), y = sin(bt) as in LissajousTrochoid, instead of around
+	the outer circle.  Fields may be separated by any whitespace and lines
+	starting with # are comments.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.util.Arrays;
+
+
+public class CurveParms
+{
+	final public static int	MAXPOINTS = 1000000;		// default max number of points to calculate
+	final public static int	MAXDENSITY = 10000;			// default max points per revolution
+	final public static int	MARGINSIZE = 4;				// minimum distance from the curve to the edge of an image
+
+	protected double	revolutions;				// num of revolutions main angle needs to complete the figure
+	protected int[]		radii;						// integer radii of each circle (outer to inner)
+	protected double	penratio = 1.0;				// the ratio penlength/innerradius
+	protected int		xfrequency;					// frequency of the Lissajous X oscillator (0 if not a Lissajous trochoid)
+	protected int		yfrequency;					// frequency of the Lissajous Y oscillator
+	protected int		xphaseshift;				// Lissajous phaseshift in 1/8ths of PI
+
+	public CurveParms(double revolutions, int[] radii, double penratio)
+	{
+		this.radii = radii.clone();
+		this.penratio = penratio;
+		if (revolutions > 0.0)  this.revolutions = revolutions;
+		else  this.revolutions = (double)new PolytrochoidPeriod(radii.length, radii).getRevolutions();
+	}
+
+	public CurveParms(double revolutions, int[] radii, double penratio, int xfrequency, int yfrequency, int xphaseshift)
+	{
+		this(revolutions, radii, penratio);
+		this.xfrequency = xfrequency;
+		this.yfrequency = yfrequency;
+		this.xphaseshift = xphaseshift;
+	}
+
+	/* Returns the parameters in a line of text (or null if the line is blank, a
+	   comment, or can't be read, in which case the error is printed) */
+	public static CurveParms Parse(String line)
+	{
+		String[] fields = line.trim().split("\\s+");
+		int[]	 radii;
+		int		 numradii = 0;
+		double	 revolutions, penratio = 1.0;
+		int		 xfreq = 0, yfreq = 0, phase = 0;
+
+		if (fields[0].length() == 0 || fields[0].startsWith("#"))  return null;
+		try {
+			revolutions = Double.parseDouble(fields[0]);
+			radii = new int[fields.length - 1];
+			for (int i = 1; i < fields.length; i++) {
+				if (fields[i].startsWith("pen=")) {
+					penratio = Double.parseDouble(fields[i].substring(4));
+				}
+				else if (fields[i].startsWith("lissajous=")) {
+					String[] values = fields[i].substring(10).split(",");
+					if (values.length != 3) {
+						System.err.println("Error in Parse(): lissajous needs 3 values (was " + fields[i] + ")");
+						return null;
+					}
+					xfreq = Integer.parseInt(values[0]);
+					yfreq = Integer.parseInt(values[1]);
+					phase = Integer.parseInt(values[2]);
+				}
+				else  radii[numradii++] = Integer.parseInt(fields[i]);
+			}
+		}
+		catch (NumberFormatException e) {
+			System.err.println("Error in Parse(): " + e.getMessage() + " in \"" + line + "\"");
+			return null;
+		}
+
+		if (numradii < 2) {
+			System.err.println("Error in Parse(): at least 2 radii are needed in \"" + line + "\"");
+			return null;
+		}
+		for (int i = 0; i < numradii; i++) {
+			if (radii[i] < 1) {
+				System.err.println("Error in Parse(): radii must be positive in \"" + line + "\"");
+				return null;
+			}
+		}
+		if (xfreq < 0 || yfreq < 0 || (xfreq == 0) != (yfreq == 0)) {
+			System.err.println("Error in Parse(): Lissajous frequencies must be positive in \"" + line + "\"");
+			return null;
+		}
+
+		CurveParms parms = new CurveParms(revolutions, Arrays.copyOf(radii, numradii), penratio,
+										  xfreq, yfreq, phase);
+		if (parms.revolutions <= 0.0) {
+			System.err.println("Error in Parse(): the period of the curve is too large to calculate in \"" + line + "\"");
+			return null;
+		}
+		return parms;
+	}
+
+	/* Returns the parameters in the format read by Parse() */
+	public String toString()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		if (revolutions == Math.rint(revolutions))  sb.append((long)revolutions);
+		else  sb.append(revolutions);
+		for (int i = 0; i < radii.length; i++)  sb.append('\t').append(radii[i]);
+		sb.append("\tpen=").append(penratio);
+		if (IsLissajous()) {
+			sb.append("\tlissajous=").append(xfrequency).append(',').append(yfrequency).append(',').append(xphaseshift);
+		}
+		return sb.toString();
+	}
+
+	public boolean IsLissajous()
+	{
+		return xfrequency > 0;
+	}
+
+	public double getRevolutions()
+	{
+		return revolutions;
+	}
+
+	public int[] getRadii()
+	{
+		return radii.clone();
+	}
+
+	public double getPenRatio()
+	{
+		return penratio;
+	}
+
+	/* Returns the number of points per revolution to calculate at most maxpoints points */
+	public int PointDensity(int maxpoints)
+	{
+		int density = (int)Math.min(MAXDENSITY, maxpoints / revolutions);
+		return Math.max(density, 1);
+	}
+
+	/* Returns a drawing radius that fits the curve in an image (like SetScale() in the windows) */
+	public static double DrawingRadius(int width, int height)
+	{
+		return Math.max(Math.min(width, height) * 0.25 - MARGINSIZE, 1.0);
+	}
+
+	/* Returns an evaluator for the polytrochoid with the largest circle scaled to drawingradius
+	   (a Lissajous trochoid only uses its terms after the first, which roll along the Lissajous curve) */
+	public PolytrochoidEvaluator Evaluator(double drawingradius)
+	{
+		final int	 numcircles = radii.length;
+		double[] pixradii = new double[numcircles];
+		double[] radiidiffs = new double[numcircles];
+		double[] angleratios = new double[numcircles];
+		double	 maxradii = Double.MIN_VALUE;
+
+		// the same parameters that SetDrawingParms() calculates in the windows
+		for (int i = 0; i < numcircles; i++)  maxradii = Math.max(radii[i], maxradii);
+		for (int i = 0; i < numcircles; i++) {
+			pixradii[i] = radii[i] * drawingradius / maxradii;
+			angleratios[i] = (i > 0) ? (double)radii[i-1] / radii[i] : 1.0;
+		}
+		for (int i = 0; i < numcircles-1; i++)  radiidiffs[i] = pixradii[i] - pixradii[i+1];
+		radiidiffs[numcircles-1] = pixradii[numcircles-1] * penratio;
+		return new PolytrochoidEvaluator(numcircles, radiidiffs, angleratios);
+	}
+
+	/* Calculate the points of the curve with pointdensity points per revolution,
+	   with the largest circle (or the Lissajous curve) scaled to drawingradius */
+	public void Calculate(double drawingradius, int pointdensity, PointBuffer points)
+	{
+		final int	 numcircles = radii.length;
+		final double angleincr = 2.0 * Math.PI / pointdensity;
+		final int	 numpoints = PolytrochoidEvaluator.PointCount(revolutions, pointdensity);
+		PolytrochoidEvaluator evaluator = Evaluator(drawingradius);
+
+		if (!IsLissajous()) {
+			evaluator.Evaluate(points, numpoints, angleincr);
+			return;
+		}
+		double[] radiidiffs = evaluator.radiidiffs;
+		double[] angleratios = evaluator.angleratios;
+
+		// the trochoids roll along the Lissajous curve instead of the outer circle
+		final double phaseshift = 0.125 * xphaseshift * Math.PI;
+		double	x, y, angle, innerangle, lastangle;
+
+		points.SetSize(numpoints);
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		for (int n = 0; n < numpoints; n++) {
+			angle = n * angleincr;
+			x = drawingradius * Math.sin(xfrequency*angle + phaseshift);
+			y = drawingradius * Math.sin(yfrequency*angle);
+			lastangle = angle;
+			for (int i = 1; i < numcircles; i++) {
+				innerangle = lastangle - (lastangle * angleratios[i]);
+				x += radiidiffs[i] * Math.cos(innerangle);
+				y += radiidiffs[i] * Math.sin(innerangle);
+				lastangle = innerangle;
+			}
+			xs[n] = x;
+			ys[n] = y;
+		}
+	}
+
+	/* Returns the largest absolute value of any coordinate of the points */
+	public static double Extent(PointBuffer points)
+	{
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		int		 count = points.getSize();
+		double	 extent = 0.0;
+
+		for (int i = 0; i < count; i++) {
+			extent = Math.max(extent, Math.max(Math.abs(xs[i]), Math.abs(ys[i])));
+		}
+		return extent;
+	}
+
+	/* Draw the points around (centerx, centery) in the current color, skipping
+	   consecutive points in the same pixel, and return the number of pixels drawn */
+	public static int Draw(Graphics g, PointBuffer points, double centerx, double centery)
+	{
+		return Draw(g, points, centerx, centery, 1.0);
+	}
+
+	/* Same, but with the points multiplied by scale */
+	public static int Draw(Graphics g, PointBuffer points, double centerx, double centery, double scale)
+	{
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		int		 count = points.getSize();
+		int		 ix, iy, lastx = Integer.MIN_VALUE, lasty = Integer.MIN_VALUE, drawn = 0;
+
+		for (int i = 0; i < count; i++) {
+			ix = (int)Math.round(centerx + scale * xs[i]);
+			iy = (int)Math.round(centery - scale * ys[i]);
+			if (ix != lastx || iy != lasty) {
+				// we have to use drawLine() to draw a single point
+				g.drawLine(ix, iy, ix, iy);
+				lastx = ix;
+				lasty = iy;
+				++drawn;
+			}
+		}
+		return drawn;
+	}
+
+	/* Fill the image with the background color and draw the points in the middle of it */
+	public static int Draw(Graphics g, PointBuffer points, int width, int height, Color background, Color foreground)
+	{
+		g.setColor(background);
+		g.fillRect(0, 0, width, height);
+		g.setColor(foreground);
+		return Draw(g, points, width * 0.5, height * 0.5);
+	}
+}
@@ -0,0 +1,86 @@
+/*	CurveProvider.java
+
+	Describes one kind of curve to the rest of the program: which menu of Main
+	it appears in, how to open its window and (for curves that can be
+	calculated without a window) its parameters, period and points.
+
+	Providers are found by CurveRegistry with a ServiceLoader, which reads the
+	names of the provider classes from META-INF/services/CurveProvider.  So a
+	new curve is added to the menus, to BatchRenderer (with -curve) and to
+	CurveBenchmark by writing a subclass and listing it in that file, without
+	editing any of them.
+
+	Providers are created when the menus are built, so they should be small
+	and name their window's class with getWindowClass() instead of referring
+	to it directly (even a "new" in a method that is never called makes the
+	JVM load the class when it verifies the provider).  OpenWindow() loads
+	the window's class (and everything it uses) when the curve is first
+	opened.
+
+	The parameters of a curve are a line of text in whatever format the curve
+	chooses (e.g. the one read by CurveParms.Parse() for polytrochoids).
+	Curves that only have a window can leave getDefaultParameters(),
+	Period() and Evaluate() alone.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import javax.swing.JFrame;
+
+
+public abstract class CurveProvider
+{
+	/* Returns the name of the curve in its menu (also used to find it in CurveRegistry) */
+	public abstract String getName();
+
+	/* Returns the name of the menu the curve appears in (e.g. "Curves", "Spirals" or "Trochoids") */
+	public abstract String getMenu();
+
+	/* Returns the position of the curve in its menu (curves with lower numbers come first) */
+	public abstract int getOrder();
+
+	/* Returns the name of the class of the curve's window, a JFrame with a public constructor
+	   without arguments (or null if OpenWindow() is overridden) */
+	public abstract String getWindowClass();
+
+	/* Open a new window showing the curve (returns null if it can't, in which case the error is printed) */
+	public JFrame OpenWindow()
+	{
+		try {
+			return Class.forName(getWindowClass()).asSubclass(JFrame.class).getConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | ClassCastException e) {
+			System.err.println("Error in OpenWindow(): can't open " + getName() + ": " + e);
+			return null;
+		}
+	}
+
+	/* Returns the parameters used when none are given
+	   (or null if the curve can't be calculated without its window) */
+	public String getDefaultParameters()
+	{
+		return null;
+	}
+
+	/* Returns the number of revolutions of the main angle needed to draw the whole curve
+	   (or 0 if the parameters can't be read or the curve never closes) */
+	public double Period(String parameters)
+	{
+		return 0.0;
+	}
+
+	/* Calculate at most maxpoints points of the curve, scaled so that its largest
+	   circle (or amplitude) is 1, and return false if the parameters can't be
+	   read (in which case the error is printed) */
+	public boolean Evaluate(String parameters, int maxpoints, PointBuffer points)
+	{
+		System.err.println("Error in Evaluate(): " + getName() + " can only be drawn in its window");
+		return false;
+	}
+
+	public String toString()
+	{
+		return getName();
+	}
+}
@@ -0,0 +1,113 @@
+/*	CurveRegistry.java
+
+	The list of every curve the program knows about, found with a
+	ServiceLoader the first time it is needed (see CurveProvider).  The
+	curves are sorted by menu (MENUS first, in that order, then any other
+	menus in the order they were found) and by their order in the menu.
+
+	A provider that can't be loaded is skipped with an error message instead
+	of keeping the rest from loading.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+
+public class CurveRegistry
+{
+	final public static String[]	MENUS = {"Curves", "Spirals", "Trochoids"};
+
+	private static List<CurveProvider>	curves;			// every curve found (null until first used)
+	private static List<String>			menus;			// names of the menus the curves are in
+
+	/* Returns every curve, sorted by menu and by order within each menu */
+	public static synchronized List<CurveProvider> getCurves()
+	{
+		if (curves == null)  Load();
+		return curves;
+	}
+
+	/* Returns the names of the menus that have curves in them, in the order they should appear */
+	public static synchronized List<String> getMenus()
+	{
+		if (curves == null)  Load();
+		return menus;
+	}
+
+	/* Returns the curves in one menu */
+	public static List<CurveProvider> getCurves(String menu)
+	{
+		List<CurveProvider> result = new ArrayList<CurveProvider>();
+
+		for (CurveProvider curve : getCurves()) {
+			if (curve.getMenu().equals(menu))  result.add(curve);
+		}
+		return result;
+	}
+
+	/* Returns the curve with the given name, ignoring case and spaces (or null if there isn't one) */
+	public static CurveProvider Find(String name)
+	{
+		String key = Key(name);
+
+		for (CurveProvider curve : getCurves()) {
+			if (Key(curve.getName()).equals(key))  return curve;
+		}
+		return null;
+	}
+
+	private static String Key(String name)
+	{
+		return name.replaceAll("\\s+", "").toLowerCase();
+	}
+
+	/* Find the providers and sort them */
+	private static void Load()
+	{
+		final List<String> order = new ArrayList<String>();
+		List<CurveProvider> found = new ArrayList<CurveProvider>();
+		Iterator<CurveProvider> providers = ServiceLoader.load(CurveProvider.class).iterator();
+
+		Collections.addAll(order, MENUS);
+		while (true) {
+			try {
+				if (!providers.hasNext())  break;
+				CurveProvider curve = providers.next();
+				found.add(curve);
+				if (!order.contains(curve.getMenu()))  order.add(curve.getMenu());
+			}
+			catch (ServiceConfigurationError e) {
+				System.err.println("Error in CurveRegistry.Load(): " + e.getMessage());
+			}
+		}
+		if (found.isEmpty())  System.err.println("Error in CurveRegistry.Load(): no curves were found");
+
+		Collections.sort(found, new Comparator<CurveProvider>() {
+			public int compare(CurveProvider a, CurveProvider b) {
+				int menua = order.indexOf(a.getMenu());
+				int menub = order.indexOf(b.getMenu());
+				if (menua != menub)  return menua - menub;
+				return Integer.compare(a.getOrder(), b.getOrder());
+			}
+		});
+		menus = new ArrayList<String>();
+		for (String menu : order) {
+			for (CurveProvider curve : found) {
+				if (curve.getMenu().equals(menu)) {
+					menus.add(menu);
+					break;
+				}
+			}
+		}
+		curves = Collections.unmodifiableList(found);
+		menus = Collections.unmodifiableList(menus);
+	}
+}
@@ -0,0 +1,194 @@
+/*	CurveRenderWorker.java
+
+	Renders curves into offscreen images on a background thread so that the
+	Event Dispatch Thread only has to copy the last finished image in paint().
+
+	Each window owns one worker.  When its parameters change, the window creates
+	a RenderJob containing a copy of everything needed to draw the curve and
+	passes it to Request().  Only the newest request is kept: a request that has
+	not started yet is dropped when a newer one arrives, and the job that is
+	running is cancelled (it checks IsCancelled() as it works and gives up).
+	A finished job is published with a single volatile write, and the window
+	is repainted to show it.
+
+	Jobs that draw in several passes (such as coarse-to-fine rendering) may
+	call Publish() after each pass to show the image while it is still being
+	drawn.  Later passes only add to the image, so the window never shows
+	anything that the finished image won't contain.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CancellationException;
+
+
+public class CurveRenderWorker implements Runnable
+{
+	/** A request to draw one image.  Subclasses copy the parameters of the
+	 *  curve in their constructors and draw it in Render(), calling
+	 *  CheckCancelled() often enough to stop quickly when a newer
+	 *  request arrives.  Subclasses may also record diagnostics in their
+	 *  own fields, which are read after the job has been published.
+	 */
+	public static abstract class RenderJob
+	{
+		protected int				width, height;		// size of the image
+		protected BufferedImage		image;
+		private CurveRenderWorker	worker;				// worker running this job
+		private volatile boolean	cancelled = false;
+		private volatile boolean	complete = false;	// has Render() returned?
+
+		public RenderJob(int width, int height)
+		{
+			this.width = Math.max(width, 1);
+			this.height = Math.max(height, 1);
+		}
+
+		/* Draw the curve on a transparent image of size width x height */
+		protected abstract void Render(Graphics2D g);
+
+		public BufferedImage getImage()
+		{
+			return image;
+		}
+
+		public void Cancel()
+		{
+			cancelled = true;
+		}
+
+		public boolean IsCancelled()
+		{
+			return cancelled;
+		}
+
+		/* Returns false if the image is only partly drawn */
+		public boolean IsComplete()
+		{
+			return complete;
+		}
+
+		/* Show the image drawn so far in the window (unless the job was cancelled) */
+		protected void Publish()
+		{
+			worker.Publish(this);
+		}
+
+		/* Abandon the job by throwing CancellationException if it was cancelled */
+		protected void CheckCancelled()
+		{
+			if (cancelled)  throw new CancellationException();
+		}
+	}
+
+	private Component			target;				// component to repaint when a job is finished
+	private Thread				thread;
+	private RenderJob			pending;			// newest job that hasn't started (guarded by this)
+	private RenderJob			current;			// job that is running (guarded by this)
+	private volatile RenderJob	finished;			// newest job that completed
+	private volatile boolean	shutdown = false;
+
+	public CurveRenderWorker(Component target)
+	{
+		this.target = target;
+	}
+
+	/* Ask for a new image, replacing any request that hasn't started yet
+	   and cancelling the job in progress */
+	public synchronized void Request(RenderJob job)
+	{
+		if (shutdown)  return;
+		if (thread == null) {
+			thread = new Thread(this, "Curve renderer");
+			thread.setDaemon(true);
+			thread.start();
+		}
+		if (current != null)  current.Cancel();
+		pending = job;
+		notifyAll();
+	}
+
+	/* Returns the newest job that finished or published a partial image (or null if none have yet) */
+	public RenderJob getFinished()
+	{
+		return finished;
+	}
+
+	/* Make job the one shown by the window and repaint it */
+	private void Publish(RenderJob job)
+	{
+		if (!job.IsCancelled()) {
+			finished = job;
+			target.repaint();
+		}
+	}
+
+	/* Returns true if a job is waiting or in progress */
+	public synchronized boolean IsBusy()
+	{
+		return (pending != null || current != null);
+	}
+
+	/* Stop the background thread (e.g. when the window is closed) */
+	public synchronized void Shutdown()
+	{
+		shutdown = true;
+		if (current != null)  current.Cancel();
+		pending = null;
+		notifyAll();
+	}
+
+	public void run()
+	{
+		RenderJob job;
+
+		while (true) {
+			// wait for the next request
+			synchronized (this) {
+				while (pending == null && !shutdown) {
+					try {
+						wait();
+					}
+					catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (shutdown)  return;
+				job = pending;
+				pending = null;
+				current = job;
+			}
+
+			try {
+				job.worker = this;
+				job.image = new BufferedImage(job.width, job.height, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D g = job.image.createGraphics();
+				try {
+					job.Render(g);
+				}
+				finally {
+					g.dispose();
+				}
+				job.complete = true;
+				Publish(job);
+			}
+			catch (CancellationException e) {
+				// a newer request arrived, so this image is no longer needed
+			}
+			catch (RuntimeException | Error e) {
+				// (even an OutOfMemoryError from a very large curve mustn't end this
+				// thread, or no later request would ever be drawn)
+				System.err.println("Error in CurveRenderWorker: " + e);
+			}
+			finally {
+				synchronized (this) {
+					current = null;
+				}
+			}
+		}
+	}
+}
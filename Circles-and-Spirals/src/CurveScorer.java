@@ -0,0 +1,322 @@
+/*	CurveScorer.java
+
+	Scores random polytrochoid parameter sets by how interesting they are
+	likely to look and keeps a pool of the best ones, so that clicking in
+	PolytrochoidTest2 shows a good curve right away instead of rerolling the
+	radii until one is acceptable.
+
+	Each candidate is scored from a coarse sample of COARSEPOINTS points
+	calculated with one inverse FFT (see PolytrochoidSpectrum) and from its
+	exact period:
+
+	- coverage:	the fraction of a GRIDSIZE x GRIDSIZE grid over the curve's
+				bounding square that the samples touch.  Nearly empty curves
+				(circles, thin loops) and nearly solid blobs both score low.
+	- symmetry:	the curve has k-fold rotational symmetry when every term's
+				number of turns is the same modulo k, i.e. k is the GCD of the
+				differences of the turns.  Orders from about 3 to 30 score best.
+	- period:	curves that need many revolutions to close are slower to draw
+				and tend to be blobs, so the score falls off with revolutions.
+
+	The candidates are scored in parallel with the fork/join framework.  When
+	the pool runs low it is refilled in the background.  Next() never waits
+	for a refill (it is called on the event thread): if the pool is empty it
+	returns the best of QUICKCANDIDATES candidates scored on the spot.
+	main() prints the scoring throughput.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+public class CurveScorer
+{
+	final public static int		COARSEPOINTS = 16384;	// samples used to score each candidate
+	final public static int		GRIDSIZE = 64;			// width and height of the coverage grid
+	final public static double	IDEALCOVERAGE = 0.35;	// fraction of the grid that scores best
+	final public static int		MAXRADIUS = 40;			// largest random radius
+	final public static long	MAXREVOLUTIONS = 1000;	// candidates with longer periods are rejected
+	final public static int		CANDIDATES = 1024;		// candidates scored per refill
+	final public static int		POOLSIZE = 64;			// best candidates kept from each refill
+	final public static int		QUICKCANDIDATES = 8;	// candidates scored by Next() when the pool is empty
+	final public static int		CHUNKSIZE = 16;			// max number of candidates scored by one task
+
+	protected int				numcircles;			// number of circles in every candidate
+	protected Random			random = new Random();
+	private List<Candidate>		pool = new ArrayList<Candidate>();	// best candidates of each refill
+	private boolean				refilling;			// is a background refill running?
+
+	/** One parameter set and its score */
+	public static class Candidate implements Comparable<Candidate>
+	{
+		public int[]	radii;
+		public double	penratio;
+		public long		revolutions;
+		public double	coverage, score;
+		public int		symmetry;
+
+		public int compareTo(Candidate other)
+		{
+			return Double.compare(score, other.score);
+		}
+
+		public String toString()
+		{
+			return String.format("%s pen %.2f: score %.3f (coverage %.2f, %d-fold, %d revs)",
+								 Arrays.toString(radii), penratio, score, coverage, symmetry, revolutions);
+		}
+	}
+
+	public CurveScorer(int circles)
+	{
+		numcircles = circles;
+	}
+
+	public int getCircles()
+	{
+		return numcircles;
+	}
+
+	/* Returns one of the best candidates from the pool, or the best of a few quickly
+	   scored ones if the pool is empty (in either case refilling it in the background
+	   if it is running low) */
+	public Candidate Next()
+	{
+		Candidate best = null;
+
+		synchronized (this) {
+			if (!pool.isEmpty())  best = pool.remove(random.nextInt(pool.size()));
+		}
+		if (PoolSize() < POOLSIZE / 4)  RefillLater();
+		if (best == null)  best = QuickCandidate();
+		return best;
+	}
+
+	/* Returns the best of QUICKCANDIDATES random candidates, scored on the calling thread */
+	public Candidate QuickCandidate()
+	{
+		Candidate[] candidates = new Candidate[QUICKCANDIDATES];
+
+		for (int i = 0; i < QUICKCANDIDATES; i++)  candidates[i] = RandomCandidate();
+		ScoreRange(candidates, 0, QUICKCANDIDATES);
+		Arrays.sort(candidates);
+		return candidates[QUICKCANDIDATES - 1];
+	}
+
+	public synchronized int PoolSize()
+	{
+		return pool.size();
+	}
+
+	/* Refill the pool on another thread (unless that is already happening) */
+	public void RefillLater()
+	{
+		synchronized (this) {
+			if (refilling)  return;
+			refilling = true;
+		}
+		ForkJoinPool.commonPool().execute(new Runnable() {
+			public void run() {
+				try {
+					Refill();
+				}
+				catch (RuntimeException e) {
+					// (the pool would swallow it)
+					System.err.println("Error in CurveScorer.RefillLater(): " + e);
+				}
+			}
+		});
+	}
+
+	/* Score CANDIDATES random candidates and add the best POOLSIZE to the pool
+	   (refilling is cleared even if this fails, so that a later RefillLater() tries again) */
+	public void Refill()
+	{
+		Candidate[] candidates = new Candidate[CANDIDATES];
+
+		try {
+			for (int i = 0; i < CANDIDATES; i++)  candidates[i] = RandomCandidate();
+			ScoreParallel(candidates);
+			Arrays.sort(candidates);
+			synchronized (this) {
+				pool.addAll(Arrays.asList(candidates).subList(CANDIDATES - POOLSIZE, CANDIDATES));
+			}
+		}
+		finally {
+			synchronized (this) {
+				refilling = false;
+			}
+		}
+	}
+
+	/* Returns random radii and pen position whose period is short enough to score */
+	protected Candidate RandomCandidate()
+	{
+		Candidate c = new Candidate();
+
+		c.radii = new int[numcircles];
+		do {
+			for (int i = 0; i < numcircles; i++)  c.radii[i] = 1 + random.nextInt(MAXRADIUS);
+			c.revolutions = new PolytrochoidPeriod(numcircles, c.radii).getRevolutions();
+		}
+		while (c.revolutions <= 0 || c.revolutions > MAXREVOLUTIONS);
+		c.penratio = (3 + random.nextInt(38)) * 0.05;
+		return c;
+	}
+
+	/* Score every candidate using all available processors */
+	public static void ScoreParallel(Candidate[] candidates)
+	{
+		ForkJoinPool.commonPool().invoke(new ScoreTask(candidates, 0, candidates.length));
+	}
+
+	/* Score candidates[first] to candidates[last-1] on the calling thread */
+	public static void ScoreRange(Candidate[] candidates, int first, int last)
+	{
+		PointBuffer points = new PointBuffer(COARSEPOINTS + 1);
+		BitSet grid = new BitSet(GRIDSIZE * GRIDSIZE);
+
+		for (int i = first; i < last; i++)  Score(candidates[i], points, grid);
+	}
+
+	/* Calculate the score of one candidate (points and grid are work space) */
+	public static void Score(Candidate c, PointBuffer points, BitSet grid)
+	{
+		int		 n = c.radii.length;
+		double[] radiidiffs = new double[n];
+		int		 maxradius = 0;
+
+		// the lengths of the rotating vectors, as in SetDrawingParms()
+		for (int i = 0; i < n; i++)  maxradius = Math.max(maxradius, c.radii[i]);
+		for (int i = 0; i < n-1; i++)  radiidiffs[i] = (double)(c.radii[i] - c.radii[i+1]) / maxradius;
+		radiidiffs[n-1] = c.penratio * c.radii[n-1] / maxradius;
+
+		PolytrochoidSpectrum spectrum = new PolytrochoidSpectrum(n, c.radii, radiidiffs, c.revolutions);
+		if (!spectrum.Evaluate(points, COARSEPOINTS)) {
+			c.score = 0.0;
+			return;
+		}
+		c.coverage = Coverage(points, grid);
+		c.symmetry = SymmetryOrder(n, c.radii, radiidiffs, c.revolutions);
+
+		// each factor is 1 for the best values and falls towards 0 for dull ones
+		double coveragescore = Math.max(0.0, 1.0 - Math.abs(c.coverage - IDEALCOVERAGE) / IDEALCOVERAGE);
+		double symmetryscore;
+		if (c.symmetry == 0)  symmetryscore = 0.0;					// a circle
+		else if (c.symmetry < 3)  symmetryscore = 0.5;
+		else if (c.symmetry <= 30)  symmetryscore = 1.0;
+		else  symmetryscore = 30.0 / c.symmetry;
+		double periodscore = 1.0 / (1.0 + c.revolutions / 100.0);
+		c.score = coveragescore * symmetryscore * (0.5 + 0.5 * periodscore);
+	}
+
+	/* Returns the fraction of the grid cells over the points' bounding square that contain a point */
+	public static double Coverage(PointBuffer points, BitSet grid)
+	{
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		int		 count = points.getSize();
+		double	 extent = Math.max(CurveParms.Extent(points), Double.MIN_VALUE);
+
+		double scale = (GRIDSIZE - 1) * 0.5 / extent;
+		grid.clear();
+		for (int i = 0; i < count; i++) {
+			int gx = (int)Math.round((xs[i] + extent) * scale);
+			int gy = (int)Math.round((ys[i] + extent) * scale);
+			grid.set(gy * GRIDSIZE + gx);
+		}
+		return (double)grid.cardinality() / (GRIDSIZE * GRIDSIZE);
+	}
+
+	/* Returns the order of the curve's rotational symmetry (0 for a circle):
+	   the GCD of the differences between the turns of the vectors with non-zero length */
+	public static int SymmetryOrder(int circles, int[] radii, double[] radiidiffs, long revolutions)
+	{
+		PolytrochoidPeriod period = new PolytrochoidPeriod(circles, radii);
+		long	first = 0, order = 0;
+		boolean	found = false;
+
+		try {
+			for (int i = 0; i < circles; i++) {
+				if (radiidiffs[i] == 0.0)  continue;
+				long turns = period.Turns(i, revolutions);
+				if (!found) {
+					first = turns;
+					found = true;
+				}
+				else  order = PolytrochoidPeriod.GCD(order, Math.abs(turns - first));
+			}
+		}
+		catch (ArithmeticException e) {
+			return 1;
+		}
+		return (int)Math.min(order, Integer.MAX_VALUE);
+	}
+
+	/** Splits a range of candidates into tasks of at most CHUNKSIZE candidates */
+	@SuppressWarnings("serial")
+	private static class ScoreTask extends RecursiveAction
+	{
+		private Candidate[]	candidates;
+		private int			first, last;
+
+		public ScoreTask(Candidate[] candidates, int first, int last)
+		{
+			this.candidates = candidates;
+			this.first = first;
+			this.last = last;
+		}
+
+		protected void compute()
+		{
+			if (last - first <= CHUNKSIZE)  ScoreRange(candidates, first, last);
+			else {
+				int middle = (first + last) >>> 1;
+				invokeAll(new ScoreTask(candidates, first, middle), new ScoreTask(candidates, middle, last));
+			}
+		}
+	}
+
+	/* Benchmark: java CurveScorer [circles] [candidates] */
+	public static void main(String[] args)
+	{
+		int circles = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+		int count = (args.length > 1) ? Integer.parseInt(args[1]) : 4096;
+		CurveScorer scorer = new CurveScorer(circles);
+		Candidate[] candidates = new Candidate[count];
+		long start;
+
+		for (int i = 0; i < count; i++)  candidates[i] = scorer.RandomCandidate();
+		for (int pass = 0; pass < 3; pass++) {
+			start = System.nanoTime();
+			Candidate quick = scorer.QuickCandidate();
+			double quicktime = (System.nanoTime() - start) * 0.000001;
+			start = System.nanoTime();
+			ScoreRange(candidates, 0, count);
+			double serial = (System.nanoTime() - start) * 0.000000001;
+			start = System.nanoTime();
+			ScoreParallel(candidates);
+			double parallel = (System.nanoTime() - start) * 0.000000001;
+			System.out.println(String.format("%d candidates with %d circles: serial %.0f/sec, parallel %.0f/sec on %d threads; " +
+											 "QuickCandidate() %.1f ms (score %.3f)",
+											 count, circles, count / serial, count / parallel,
+											 ForkJoinPool.getCommonPoolParallelism(), quicktime, quick.score));
+		}
+
+		List<Candidate> ranked = new ArrayList<Candidate>(Arrays.asList(candidates));
+		Collections.sort(ranked, Collections.reverseOrder());
+		System.out.println("Best:");
+		for (int i = 0; i < 5; i++)  System.out.println("  " + ranked.get(i));
+		System.out.println("Worst:");
+		for (int i = 1; i <= 5; i++)  System.out.println("  " + ranked.get(count - i));
+	}
+}
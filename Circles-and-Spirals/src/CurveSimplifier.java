@@ -0,0 +1,94 @@
+/*	CurveSimplifier.java
+
+	Reduces the number of points in a PointBuffer with the Douglas-Peucker
+	algorithm so that the curve can be drawn as a polyline.  Every removed point
+	is within the given tolerance (in pixels) of the line segment that replaces
+	it, so with a sub-pixel tolerance the simplified polyline looks the same as
+	the original points (without the gaps that plotting points can leave).
+
+	The algorithm uses an explicit stack instead of recursion because the
+	buffers can contain millions of points.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class CurveSimplifier
+{
+	final public static double	TOLERANCE = 0.25;		// default max distance of removed points in pixels
+
+	/* Copy the points that must be kept (with the default tolerance) into result
+	   and return the number of points kept */
+	public static int Simplify(PointBuffer points, PointBuffer result)
+	{
+		return Simplify(points, 0, points.getSize(), TOLERANCE, result);
+	}
+
+	/* Simplify the points with indices first to last-1 */
+	public static int Simplify(PointBuffer points, int first, int last, double tolerance, PointBuffer result)
+	{
+		double[] xs = points.x;
+		double[] ys = points.y;
+		int		 count = last - first;
+
+		result.Clear();
+		if (count <= 2) {
+			for (int i = first; i < last; i++)  result.Add(xs[i], ys[i]);
+			return result.getSize();
+		}
+
+		boolean[] keep = new boolean[count];
+		int[]	  stack = new int[64];
+		int		  top = 0;
+		double	  tolsquared = tolerance * tolerance;
+
+		keep[0] = keep[count-1] = true;
+		stack[top++] = first;
+		stack[top++] = last - 1;
+		while (top > 0) {
+			int end = stack[--top];
+			int start = stack[--top];
+
+			// find the point farthest from the segment start-end
+			double ax = xs[start], ay = ys[start];
+			double dx = xs[end] - ax, dy = ys[end] - ay;
+			double lensquared = dx*dx + dy*dy;
+			double maxdist = -1.0;
+			int	   farthest = -1;
+			for (int i = start + 1; i < end; i++) {
+				double px = xs[i] - ax, py = ys[i] - ay;
+				double dist;
+				// squared distance from the point to the segment (not the infinite line)
+				double u = (lensquared > 0.0) ? (px*dx + py*dy) / lensquared : 0.0;
+				if (u <= 0.0)  dist = px*px + py*py;
+				else if (u >= 1.0) {
+					double ex = xs[i] - xs[end], ey = ys[i] - ys[end];
+					dist = ex*ex + ey*ey;
+				}
+				else {
+					double cross = px*dy - py*dx;
+					dist = cross * cross / lensquared;
+				}
+				if (dist > maxdist) {
+					maxdist = dist;
+					farthest = i;
+				}
+			}
+
+			// keep the farthest point and simplify both halves if it is too far away
+			if (farthest >= 0 && maxdist > tolsquared) {
+				keep[farthest - first] = true;
+				if (top + 4 > stack.length)  stack = java.util.Arrays.copyOf(stack, stack.length * 2);
+				stack[top++] = start;
+				stack[top++] = farthest;
+				stack[top++] = farthest;
+				stack[top++] = end;
+			}
+		}
+
+		for (int i = 0; i < count; i++) {
+			if (keep[i])  result.Add(xs[first + i], ys[first + i]);
+		}
+		return result.getSize();
+	}
+}
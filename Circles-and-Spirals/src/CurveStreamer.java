@@ -0,0 +1,134 @@
+/*	CurveStreamer.java
+
+	Calculates a polytrochoid in chunks of CHUNKSIZE points that are drawn (or
+	written) and then discarded, so that curves with millions of revolutions
+	can be drawn with the same amount of memory as short ones.
+
+	Each chunk is calculated from the indices of its points (see
+	PolytrochoidEvaluator.EvaluateSlice()), which are longs, so the angles
+	don't drift the way they would if angleincr were added to the angle
+	billions of times.
+
+	Draw() plots the pixels of the current chunk that haven't been plotted
+	before and keeps a bitmap of the window's covered pixels.  When
+	SATURATIONCHUNKS chunks in a row don't cover any new pixel, the picture
+	has stopped changing and IsSaturated() returns true, so that the caller
+	can stop early instead of calculating the rest of the curve.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Graphics;
+import java.util.BitSet;
+
+
+public class CurveStreamer
+{
+	final public static int	CHUNKSIZE = 65536;			// points calculated at a time
+	final public static int	SATURATIONCHUNKS = 64;		// chunks without new pixels before the picture is saturated
+
+	protected PolytrochoidEvaluator	evaluator;
+	protected long		numpoints;					// number of points in the whole curve
+	protected double	angleincr;
+	protected PointBuffer	chunk = new PointBuffer(CHUNKSIZE);
+	protected long		first;						// index of the first point of the current chunk
+	protected long		next;						// index of the first point of the next chunk
+
+	// the raster used by Draw()
+	protected int		width, height;
+	protected double	centerx, centery, scale;
+	protected BitSet	covered;					// pixels already plotted (row-major)
+	protected int		pixels;						// number of pixels plotted
+	protected int		idlechunks;					// chunks in a row that plotted no new pixels
+
+	public CurveStreamer(PolytrochoidEvaluator evaluator, long numpoints, double angleincr)
+	{
+		this.evaluator = evaluator;
+		this.numpoints = numpoints;
+		this.angleincr = angleincr;
+	}
+
+	/* Set up Draw() to plot the points at (centerx + scale*x, centery - scale*y) in a window of the given size */
+	public void SetRaster(int width, int height, double centerx, double centery, double scale)
+	{
+		this.width = width;
+		this.height = height;
+		this.centerx = centerx;
+		this.centery = centery;
+		this.scale = scale;
+		covered = new BitSet(width * height);
+		pixels = idlechunks = 0;
+	}
+
+	/* Calculate the next chunk (returns false if the whole curve has been calculated) */
+	public boolean Next()
+	{
+		if (next >= numpoints)  return false;
+		first = next;
+		next = Math.min(first + CHUNKSIZE, numpoints);
+		evaluator.EvaluateSlice(chunk, first, (int)(next - first), angleincr);
+		return true;
+	}
+
+	/* Returns the points of the current chunk (only valid until the next call to Next()) */
+	public PointBuffer getChunk()
+	{
+		return chunk;
+	}
+
+	/* Returns the index of the first point of the current chunk */
+	public long getFirst()
+	{
+		return first;
+	}
+
+	/* Returns the number of points calculated so far */
+	public long getCalculated()
+	{
+		return next;
+	}
+
+	public long getNumPoints()
+	{
+		return numpoints;
+	}
+
+	/* Plot the pixels of the current chunk that haven't been plotted yet
+	   (SetRaster() must have been called) and return how many there were */
+	public int Draw(Graphics g)
+	{
+		double[] xs = chunk.getX();
+		double[] ys = chunk.getY();
+		int		 count = chunk.getSize();
+		int		 added = 0;
+
+		for (int i = 0; i < count; i++) {
+			int ix = (int)Math.round(centerx + scale * xs[i]);
+			int iy = (int)Math.round(centery - scale * ys[i]);
+			if (ix < 0 || ix >= width || iy < 0 || iy >= height)  continue;
+			int pixel = iy * width + ix;
+			if (covered.get(pixel))  continue;
+			covered.set(pixel);
+			// we have to use drawLine() to draw a single point
+			g.drawLine(ix, iy, ix, iy);
+			++added;
+		}
+		pixels += added;
+		if (added == 0)  ++idlechunks;
+		else  idlechunks = 0;
+		return added;
+	}
+
+	/* Returns the number of pixels plotted by Draw() */
+	public int getPixels()
+	{
+		return pixels;
+	}
+
+	/* Returns true if the last SATURATIONCHUNKS chunks drawn didn't plot any new pixels */
+	public boolean IsSaturated()
+	{
+		return idlechunks >= SATURATIONCHUNKS;
+	}
+}
@@ -0,0 +1,59 @@
+/*	CurveSymmetry.java
+
+	Fills in the rest of a symmetric curve from the points of one fundamental
+	sector, so that only that sector has to be calculated.
+
+	Rotate() is for curves with rotational symmetry, such as a hypotrochoid
+	with outer/inner ratio P/Q (in lowest terms), which has P-fold symmetry:
+	advancing the angle by 2πQ/P rotates every point by the same angle.
+
+	Repeat() and Mirror() work on one coordinate array at a time.  They are
+	for sinusoids such as the x and y of Lissajous curves, where shifting the
+	angle by π or reflecting it about π/2 at most changes the sign of each value.
+
+	Each point is found from one that is already known with a few multiplies,
+	instead of with trig functions.  The sector sizes must be whole numbers of
+	samples (the caller adjusts the angle increment if necessary).
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class CurveSymmetry
+{
+	/* Fill sectors 1 to sectors-1 of points (each sectorsize points long) by rotating
+	   sector 0 counterclockwise by multiples of angle (with the y-axis pointing up) */
+	public static void Rotate(PointBuffer points, int sectorsize, int sectors, double angle)
+	{
+		double[] xs = points.x;
+		double[] ys = points.y;
+
+		for (int j = 1; j < sectors; j++) {
+			double c = Math.cos(j * angle);
+			double s = Math.sin(j * angle);
+			int offset = j * sectorsize;
+			for (int n = 0; n < sectorsize; n++) {
+				xs[offset + n] = xs[n] * c - ys[n] * s;
+				ys[offset + n] = xs[n] * s + ys[n] * c;
+			}
+		}
+	}
+
+	/* Set values[n] = sign * values[n - period] for n = period to count-1
+	   (so the values repeat every period samples, with alternating signs if sign is -1) */
+	public static void Repeat(double[] values, int period, int count, double sign)
+	{
+		for (int n = period; n < count; n++) {
+			values[n] = sign * values[n - period];
+		}
+	}
+
+	/* Set values[n] = sign * values[2*center - n] for n = center+1 to end-1
+	   (i.e. reflect the values before center about it) */
+	public static void Mirror(double[] values, int center, int end, double sign)
+	{
+		for (int n = center + 1; n < end; n++) {
+			values[n] = sign * values[2*center - n];
+		}
+	}
+}
@@ -0,0 +1,265 @@
+/*	DensityRenderer.java
+
+	Draws a curve's points as a smooth, anti-aliased picture of how often
+	the curve passes through each part of the window, instead of plotting
+	each point in the nearest pixel.
+
+	Each point is splatted into a float accumulation buffer with bilinear
+	weights: the four pixels around the point's exact position get shares
+	of 1 in proportion to how close it is to them.  ToneMap() then turns
+	the buffer into an image whose alpha at each pixel is
+
+	log(1 + density) / log(1 + maximum density)
+
+	so that rarely crossed regions are faint and the busiest are solid.
+
+	AccumulateParallel() splits the points among the fork/join pool's
+	threads, each of which splats into its own buffer (so no locking is
+	needed), and then adds the buffers together row by row, also in
+	parallel.  main() compares its speed with plain pixel plotting.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+public class DensityRenderer
+{
+	protected int		width, height;
+	protected float[]	density;					// accumulated weight of each pixel (row-major)
+	protected float[][]	partials;					// one buffer per thread for AccumulateParallel()
+	protected int		covered;					// number of pixels with any weight after ToneMap()
+
+	public DensityRenderer(int width, int height)
+	{
+		this.width = Math.max(width, 1);
+		this.height = Math.max(height, 1);
+		density = new float[this.width * this.height];
+	}
+
+	public int getWidth()
+	{
+		return width;
+	}
+
+	public int getHeight()
+	{
+		return height;
+	}
+
+	/* Returns the number of pixels that ToneMap() found with any weight */
+	public int getCovered()
+	{
+		return covered;
+	}
+
+	public void Clear()
+	{
+		Arrays.fill(density, 0.0f);
+	}
+
+	/* Splat the points at (centerx + scale*x, centery - scale*y) on the calling thread */
+	public void Accumulate(PointBuffer points, double centerx, double centery, double scale)
+	{
+		Splat(points, 0, points.getSize(), centerx, centery, scale, density);
+	}
+
+	/* Same as Accumulate() using all available processors */
+	public void AccumulateParallel(PointBuffer points, double centerx, double centery, double scale)
+	{
+		int		count = points.getSize();
+		int		numparts = Math.min(ForkJoinPool.getCommonPoolParallelism(), count / PolytrochoidEvaluator.CHUNKSIZE);
+
+		if (numparts <= 1) {
+			Accumulate(points, centerx, centery, scale);
+			return;
+		}
+
+		// reuse the per-thread buffers if there are enough of them
+		if (partials == null || partials.length < numparts || partials[0].length != density.length) {
+			partials = new float[numparts][density.length];
+		}
+		List<RecursiveAction> tasks = new ArrayList<RecursiveAction>(numparts);
+		for (int part = 0; part < numparts; part++) {
+			tasks.add(new SplatTask(points, (int)((long)count * part / numparts), (int)((long)count * (part+1) / numparts),
+									centerx, centery, scale, partials[part]));
+		}
+		ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+
+		tasks.clear();
+		for (int part = 0; part < numparts; part++) {
+			tasks.add(new MergeTask(numparts, height * part / numparts, height * (part+1) / numparts));
+		}
+		ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+	}
+
+	/* Add the bilinear weights of points[first] to points[last-1] to buffer */
+	public void Splat(PointBuffer points, int first, int last, double centerx, double centery, double scale, float[] buffer)
+	{
+		final double[] xs = points.getX();
+		final double[] ys = points.getY();
+		final int	   maxx = width - 1, maxy = height - 1;
+
+		for (int i = first; i < last; i++) {
+			double px = centerx + scale * xs[i];
+			double py = centery - scale * ys[i];
+			// (pixel ix is centered on x = ix, as with Math.round())
+			double fx = Math.floor(px);
+			double fy = Math.floor(py);
+			if (fx < -1.0 || fx > maxx || fy < -1.0 || fy > maxy)  continue;
+			int	  ix = (int)fx;
+			int	  iy = (int)fy;
+			float tx = (float)(px - fx);
+			float ty = (float)(py - fy);
+			int	  pixel = iy * width + ix;
+			if (iy >= 0) {
+				if (ix >= 0)	buffer[pixel] += (1.0f - tx) * (1.0f - ty);
+				if (ix < maxx)	buffer[pixel + 1] += tx * (1.0f - ty);
+			}
+			if (iy < maxy) {
+				if (ix >= 0)	buffer[pixel + width] += (1.0f - tx) * ty;
+				if (ix < maxx)	buffer[pixel + width + 1] += tx * ty;
+			}
+		}
+	}
+
+	/* Returns the accumulated density as an image of the given color whose alpha is
+	   the log of each pixel's density relative to the largest one */
+	public BufferedImage ToneMap(Color color)
+	{
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		int[]	pixels = ((DataBufferInt)image.getRaster().getDataBuffer()).getData();
+		int		rgb = color.getRGB() & 0x00FFFFFF;
+		float	max = 0.0f;
+
+		for (int i = 0; i < density.length; i++)  max = Math.max(max, density[i]);
+		covered = 0;
+		if (max == 0.0f)  return image;
+
+		double normalize = 255.0 / Math.log1p(max);
+		for (int i = 0; i < density.length; i++) {
+			float value = density[i];
+			if (value > 0.0f) {
+				++covered;
+				int alpha = (int)Math.round(Math.log1p(value) * normalize);
+				pixels[i] = (alpha << 24) | rgb;
+			}
+		}
+		return image;
+	}
+
+	/** Splats a range of the points into one thread's buffer */
+	@SuppressWarnings("serial")
+	private class SplatTask extends RecursiveAction
+	{
+		private PointBuffer	points;
+		private int			first, last;
+		private double		centerx, centery, scale;
+		private float[]		buffer;
+
+		public SplatTask(PointBuffer points, int first, int last, double centerx, double centery, double scale, float[] buffer)
+		{
+			this.points = points;
+			this.first = first;
+			this.last = last;
+			this.centerx = centerx;
+			this.centery = centery;
+			this.scale = scale;
+			this.buffer = buffer;
+		}
+
+		protected void compute()
+		{
+			Arrays.fill(buffer, 0.0f);
+			Splat(points, first, last, centerx, centery, scale, buffer);
+		}
+	}
+
+	/** Adds rows first to last-1 of the per-thread buffers to the density */
+	@SuppressWarnings("serial")
+	private class MergeTask extends RecursiveAction
+	{
+		private int		numparts, first, last;
+
+		public MergeTask(int numparts, int first, int last)
+		{
+			this.numparts = numparts;
+			this.first = first;
+			this.last = last;
+		}
+
+		protected void compute()
+		{
+			int end = last * width;
+
+			for (int part = 0; part < numparts; part++) {
+				float[] buffer = partials[part];
+				for (int i = first * width; i < end; i++)  density[i] += buffer[i];
+			}
+		}
+	}
+
+	/* Benchmark against plain plotting: java DensityRenderer [radius1 radius2 ...] */
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		int[] radii = {43, 24, 8, 2};
+		if (args.length >= 2) {
+			radii = new int[args.length];
+			for (int i = 0; i < args.length; i++)  radii[i] = Integer.parseInt(args[i]);
+		}
+		CurveParms	parms = new CurveParms(0.0, radii, 0.8);
+		int			size = 1000;
+		PointBuffer	points = new PointBuffer();
+		long		start;
+
+		parms.Calculate(CurveParms.DrawingRadius(size, size), parms.PointDensity(CurveParms.MAXPOINTS), points);
+		DensityRenderer renderer = new DensityRenderer(size, size);
+		BufferedImage plain = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		for (int pass = 0; pass < 3; pass++) {
+			Graphics2D g = plain.createGraphics();
+			start = System.nanoTime();
+			int pixels = CurveParms.Draw(g, points, size, size, Color.white, Color.blue);
+			double plaintime = (System.nanoTime() - start) * 0.000001;
+			g.dispose();
+
+			renderer.Clear();
+			start = System.nanoTime();
+			renderer.Accumulate(points, size * 0.5, size * 0.5, 1.0);
+			double serialtime = (System.nanoTime() - start) * 0.000001;
+
+			renderer.Clear();
+			start = System.nanoTime();
+			renderer.AccumulateParallel(points, size * 0.5, size * 0.5, 1.0);
+			double paralleltime = (System.nanoTime() - start) * 0.000001;
+
+			start = System.nanoTime();
+			renderer.ToneMap(Color.blue);
+			double tonetime = (System.nanoTime() - start) * 0.000001;
+
+			System.out.println(String.format("%d points: plain %.1f ms (%d pixels), splat %.1f ms, parallel splat %.1f ms " +
+											 "on %d threads, tone map %.1f ms (%d pixels)",
+											 points.getSize(), plaintime, pixels, serialtime, paralleltime,
+											 ForkJoinPool.getCommonPoolParallelism(), tonetime, renderer.getCovered()));
+		}
+	}
+}
@@ -13,6 +13,7 @@
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Insets;
 import javax.swing.JFrame;
 
 
@@ -24,12 +25,16 @@ final private int	WINHEIGHT = 400;
 protected double	centerx;
 protected double	centery;
 protected double	radius;
+protected PointBuffer	points = new PointBuffer();
+protected ZoomPan	view;						// mouse wheel zoom and drag pan (0 resets)
 
 public DoubleLituus()
 {
 	super("A double-armed lituus");
 	setSize(WINWIDTH, WINHEIGHT);
 	setVisible(true);
+	view = new ZoomPan(this);
+	view.AddResetKey('0');
 
 	// find the center of the window and a radius that will fit
 	centerx = WINWIDTH * 0.5;
@@ -48,28 +53,38 @@ public void paint(Graphics g)
 {
 	final double a = 6000.0;						// proportional constant 'a'
 	final double arcstart = a / (radius*radius);	// angle of beginning of arc
-	double angleincr = Math.PI/10000.0;				// increment at which to draw points
-	double	r, angle, x, y;
+	Insets	area;
+	double	angle, rmin, rsolid, zoom, cx, cy;
+	int		numpoints;
 	
 	super.paint(g);
 	g.setColor( Color.blue );
 	
 	// the lituus is drawn from the outside in towards the center
 	// (i.e. as the angle increases, the distance r from the center shrinks)
-	r = a;
-	angle = arcstart;
-	while (r > 0.5) {
-		r = Math.sqrt(a / angle);
+	// only calculate the points that are in the window, and stop where the
+	// turns are less than a pixel apart and just fill the rest of the center
+	// (zooming in shows smaller radii, so the points must be closer together)
+	zoom = view.getZoom();
+	cx = centerx + view.getPanX();
+	cy = centery + view.getPanY();
+	area = SpiralClipper.VisibleArea(this);
+	rmin = SpiralClipper.MinVisibleRadius(cx, cy, area) / zoom;
+	rsolid = SpiralClipper.PowerSolidRadius(a, 0.5, SpiralClipper.SOLIDGAP / zoom);
+	angle = Math.max(arcstart, SpiralClipper.PowerAngle(a, 0.5,
+	                 SpiralClipper.MaxVisibleRadius(cx, cy, area) / zoom));
+	numpoints = SpiralSampler.Power(a, 0.5, angle, Math.max(rsolid, rmin), SpiralSampler.PIXELSPACING / zoom, points);
+	double[] xs = points.getX();
+	double[] ys = points.getY();
+	for (int i = 0; i < numpoints; i++) {
 		// draw the positive arm
-		x = centerx + r * Math.cos(angle);
-		y = centery - r * Math.sin(angle);
-		drawPoint(g, x, y);
+		drawPoint(g, cx + zoom * xs[i], cy - zoom * ys[i]);
 		// draw the negative arm
-		x = centerx - r * Math.cos(angle);
-		y = centery + r * Math.sin(angle);
-		drawPoint(g, x, y);
-		angle += angleincr;
-		angleincr *= 1.001;						// use larger incr as pixels get closer
+		drawPoint(g, cx - zoom * xs[i], cy + zoom * ys[i]);
+	}
+	if (rsolid > rmin) {
+		g.fillOval((int)Math.round(cx - zoom * rsolid), (int)Math.round(cy - zoom * rsolid),
+		           (int)Math.round(2.0 * zoom * rsolid), (int)Math.round(2.0 * zoom * rsolid));
 	}
 }
 
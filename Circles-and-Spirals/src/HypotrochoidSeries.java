@@ -4,19 +4,39 @@
 	
 	http://en.wikipedia.org/wiki/Hypotrochoid
 	
+	The trochoids only differ in pen length and the rotation of the outer term,
+	so the sines and cosines are calculated once for the whole series and each
+	trochoid is drawn on its own layer in parallel.
+	
+	The mouse wheel zooms in and out and dragging pans; Z goes back to the
+	whole series (the digits set the hues).  When zoomed in, the point
+	density is multiplied by the zoom, but the sines and cosines are only
+	calculated for the ranges of angles where at least one of the trochoids
+	may be in the window (found like PolytrochoidEvaluator.VisibleRanges()).
+	
+	V writes the series to SVG and PDF files.
+	
 	Anthony Kozar
 	October 7, 2017
 	
  */
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import javax.swing.JFrame;
 
@@ -28,7 +48,7 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 	final private int	WINHEIGHT = 720;
 
 	final private String HELP_MESSAGE = "Click to randomize or use -,+,[,],<,> to adjust the parameters, " +
-            "R to redraw, ! to exit";
+            "R to redraw, Z to unzoom, V to export, ! to exit";
 
 	final private int	MARGINSIZE = 5;
 	protected Insets	drawingArea;				// visible area of window minus margins (right & bottom are coords not insets)
@@ -56,15 +76,27 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 	protected float		primaryhue;
 	protected float		secondaryhue;
 
-	private int			lastx, lasty;				// remember the last point drawn
+	protected CurveRenderWorker	renderer = new CurveRenderWorker(this);	// draws the curves in the background
+	protected ZoomPan	view;						// zoom and pan of the curves
+	final private int	SLICESIZE = 65536;			// number of points drawn between checks for cancellation
 	
 	public HypotrochoidSeries()
 	{
 		super("Hypotrochoid Series");
 		setSize(WINWIDTH, WINHEIGHT);
+		view = new ZoomPan(this, false, new Runnable() {
+			public void run() {
+				RequestRender();
+			}
+		});
 		setVisible(true);
 		addMouseListener(this);
 		addKeyListener(this);
+		addWindowListener(new WindowAdapter() {
+		    public void windowClosed(WindowEvent e) {
+		        renderer.Shutdown();
+		    }
+		});
 
 		// find the center of the window and a radius that will fit
 		centerx = WINWIDTH * 0.5;
@@ -73,6 +105,7 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 	
 		SetDrawingParms(15, 8, 6, 0.85, 0.1, -10.0);
 		SetColorParms(6, 5);
+		RequestRender();
 	}
 	
 	private void SetColorParms(int primary, int secondary) {
@@ -82,6 +115,30 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 		secondaryhue = 0.1f * isecondaryhue;
 	}
 	
+	/* Write the series as it is shown in the window to SVG and PDF files with the same
+	   points and colors as SeriesJob draws (each visible range of a zoomed series as
+	   a separate subpath) */
+	private void ExportVector()
+	{
+		double		  zoom = view.getZoom();
+		double		  cx = centerx + view.getPanX();
+		double		  cy = centery + view.getPanY();
+		SeriesTerms	  terms = new SeriesTerms();
+		PointBuffer[] curves = new PointBuffer[numtrochoids];
+		int[][]		  ranges = new int[numtrochoids][];
+		Color[]		  colors = new Color[numtrochoids];
+		
+		int[] shown = terms.CalculateShown(zoom, cx, cy, WINWIDTH, WINHEIGHT, null);
+		for (int index = 0; index < numtrochoids; index++) {
+			curves[index] = new PointBuffer(terms.getCount());
+			terms.Compose(index, 0, terms.getCount(), curves[index]);
+			ranges[index] = shown;
+			colors[index] = TrochoidColor(index, numtrochoids, primaryhue, secondaryhue);
+		}
+		VectorExporter.WriteFiles("hypotrochoids-" + System.currentTimeMillis(), WINWIDTH, WINHEIGHT,
+								  curves, ranges, colors, cx, cy, zoom);
+	}
+	
 	private void SetDrawingParms(int lobes, int revolutions, int trochoids, double penpos, double penoff, double rotoff)
 	{
 		// calculate hypotrochoid parameters
@@ -162,20 +219,6 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 				                 this.getWidth()  - (visibleArea.right  + MARGINSIZE));
 	}
 
-	protected void drawPoint(Graphics g, double x, double y)
-	{
-		int ix = (int)Math.round(x);
-		int iy = (int)Math.round(y);
-		
-		// skip consecutive duplicate points
-		if (ix != lastx || iy != lasty)	{
-			// we have to use drawLine() to draw a single point
-			g.drawLine(ix, iy, ix, iy);
-			lastx = ix;
-			lasty = iy;
-		}
-	}
-	
 	protected void drawWindowText(Graphics g)
 	{
 		String parmsMessage1;
@@ -204,43 +247,319 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 	
 	public void paint(Graphics g)
 	{
-		final double arcstart = 0.0;							// angle of beginning of arc
-		final double arcend = drevolutions * 2.0 * Math.PI;		// angle of end of arc
-		final double angleincr = Math.PI/2000.0;				// increment at which to draw points
-		double	x1, y1, x, y, lenbtwcenters, innerangle;
-
 		super.paint(g);
 		
 		// clear the window with background color
 		g.setColor(Color.white);
 		g.fillRect(0, 0, WINWIDTH, WINHEIGHT);
 
-		drawWindowText(g);
+		// copy the last curves finished by the renderer (they may be a little
+		// out of date while new ones are being drawn)
+		CurveRenderWorker.RenderJob job = renderer.getFinished();
+		if (job != null)  g.drawImage(job.getImage(), 0, 0, null);
 		
-		// draw multiple hypotrochoids
-		lenbtwcenters = outerradius - innerradius;				// distance between circle centers
+		drawWindowText(g);
+	}
+
+	/* Ask the renderer to draw the curves with the current parameters and repaint */
+	private void RequestRender()
+	{
+		if (numtrochoids == 0)  return;			// the constructor hasn't set the parameters yet
+		renderer.Request(new SeriesJob());
+		this.repaint();
+	}
+	
+	/* Returns the color of trochoid index of the series */
+	private static Color TrochoidColor(int index, int numtrochoids, float primaryhue, float secondaryhue)
+	{
+		// The first trochoid is drawn in the primary hue and each later one
+		// shifts the color towards the secondary hue.
 		final float hueincr = (1.0f/numtrochoids) * (secondaryhue-primaryhue);	// FIXME: never reaches 2ndhue?
-		for (int i = 0; i < numtrochoids; i++) {
-			// Calculate the parameters for this trochoid:
-			// The first trochoid is drawn with plen=penlength, no rotation, and in the primary hue.
-			// Subsequent trochoids each reduce penlength by the offset, increase the rotation, and
-			// shift the color towards the secondary hue.
-			double plen = penlength - (penlenoffset * i);
-			double angleoffset = i * rotationoffset * Math.PI / 360.0;
-			float hue = primaryhue + i * hueincr;
-			g.setColor(Color.getHSBColor(hue, 1.0f, 0.75f));
+		return Color.getHSBColor(primaryhue + index * hueincr, 1.0f, 0.75f);
+	}
+	
+	/** The sines and cosines of the main angle and of the pen's angle, which are
+	 *  shared by every trochoid in the series, and the composition of each
+	 *  trochoid's points from them.  SeriesJob and ExportVector() both use this,
+	 *  so the exported files have the same points as the window.
+	 *  The parameters are copied from the window when this is created.
+	 */
+	private class SeriesTerms
+	{
+		private double		lenbtwcenters, penlength, penlenoffset, rotationoffset, ratioangles;
+		private double		drevolutions;
+		private int			numtrochoids;
+		private double[]	outercos, outersin;			// trig functions of the main angle for each point
+		private double[]	innercos, innersin;			// trig functions of the pen's angle for each point
+		private int			count;						// number of points in the tables
+		private int[]		ranges;						// ranges found by FindRanges()
+		private int			rangecount;
+		
+		public SeriesTerms()
+		{
+			HypotrochoidSeries w = HypotrochoidSeries.this;
+			lenbtwcenters = w.outerradius - w.innerradius;		// distance between circle centers
+			penlength = w.penlength;
+			penlenoffset = w.penlenoffset;
+			rotationoffset = w.rotationoffset;
+			ratioangles = w.ratioangles;
+			drevolutions = w.drevolutions;
+			numtrochoids = w.numtrochoids;
+		}
+		
+		/* Returns the pen length of trochoid index in result[0] and its outer term
+		   (lenbtwcenters rotated by its angle offset) in result[1] and result[2] */
+		private void getTrochoid(int index, double[] result)
+		{
+			// The first trochoid is drawn with plen=penlength and no rotation.  Subsequent
+			// trochoids each reduce penlength by the offset and increase the rotation.
+			double angleoffset = index * rotationoffset * Math.PI / 360.0;
+			result[0] = penlength - (penlenoffset * index);
+			result[1] = lenbtwcenters * Math.cos(angleoffset);
+			result[2] = lenbtwcenters * Math.sin(angleoffset);
+		}
+		
+		public int getCount()
+		{
+			return count;
+		}
+		
+		/* Calculate the trig functions for the indices in ranges ({first, last, ...}, each range
+		   excluding its last index) into consecutive entries of the tables, checking job for
+		   cancellation (unless it is null) */
+		public void Calculate(int[] ranges, double angleincr, CurveRenderWorker.RenderJob job)
+		{
+			double	angle, innerangle;
+			int		i = 0;
 			
-			// calculate x and y parametrically based on the total angle of rotation
-			for (double angle = arcstart; angle <= arcend; angle += angleincr) {
-				innerangle = angle - (angle * ratioangles);			// angle of the pen relative to a horizontal line
-				// calculate coordinates of point relative to the origin
-				x1 = lenbtwcenters * Math.cos(angle+angleoffset) + plen * Math.cos(innerangle);
-				y1 = lenbtwcenters * Math.sin(angle+angleoffset) + plen * Math.sin(innerangle);
-				// calculate coordinates relative to our "drawing origin"
-				x = centerx + x1;
-				y = centery - y1;
-				drawPoint(g, x, y);
-			}		
+			count = 0;
+			for (int r = 0; r < ranges.length; r += 2)  count += ranges[r+1] - ranges[r];
+			outercos = new double[count];
+			outersin = new double[count];
+			innercos = new double[count];
+			innersin = new double[count];
+			for (int r = 0; r < ranges.length; r += 2) {
+				for (int n = ranges[r]; n < ranges[r+1]; n++, i++) {
+					if (job != null && (i & (SLICESIZE-1)) == 0)  job.CheckCancelled();
+					angle = n * angleincr;
+					innerangle = angle - (angle * ratioangles);		// angle of the pen relative to a horizontal line
+					outercos[i] = Math.cos(angle);
+					outersin[i] = Math.sin(angle);
+					innercos[i] = Math.cos(innerangle);
+					innersin[i] = Math.sin(innerangle);
+				}
+			}
+		}
+		
+		/* Calculate the tables for the series as it is shown in a window of width x height
+		   with its center at (centerx, centery) and the given zoom: the point density is
+		   multiplied by the zoom and only the ranges of a zoomed-in series that may be in
+		   the window (plus a pixel) are calculated.  Returns the ranges of the tables'
+		   entries {first, last, ...} that are consecutive points of the curve. */
+		public int[] CalculateShown(double zoom, double centerx, double centery, int width, int height,
+									CurveRenderWorker.RenderJob job)
+		{
+			final double arcend = drevolutions * 2.0 * Math.PI;		// angle of end of arc
+			final double angleincr = Math.PI/2000.0 / Math.max(zoom, 1.0);	// increment at which to draw points
+			final int numpoints = (int)Math.min(arcend / angleincr, Integer.MAX_VALUE - 1) + 1;
+			int[]	visible, shown;
+			int		first = 0;
+			
+			if (zoom > 1.0) {
+				visible = VisibleRanges(numpoints, angleincr, -(centerx + 1.0) / zoom, (centery - height - 1.0) / zoom,
+										(width + 1.0 - centerx) / zoom, (centery + 1.0) / zoom);
+			}
+			else  visible = new int[] {0, numpoints};
+			Calculate(visible, angleincr, job);
+			shown = new int[visible.length];
+			for (int r = 0; r < visible.length; r += 2) {
+				shown[r] = first;
+				first += visible[r+1] - visible[r];
+				shown[r+1] = first;
+			}
+			return shown;
+		}
+		
+		/* Compose entries first to last-1 of the tables into the points of trochoid index
+		   (in points[0] to points[last-first-1]) */
+		public void Compose(int index, int first, int last, PointBuffer points)
+		{
+			double[] trochoid = new double[3];
+			
+			getTrochoid(index, trochoid);
+			double plen = trochoid[0], rcos = trochoid[1], rsin = trochoid[2];
+			points.SetSize(last - first);
+			double[] xs = points.getX();
+			double[] ys = points.getY();
+			for (int n = first; n < last; n++) {
+				// rotate the outer term by angleoffset: cos(a+o) = cos(a)cos(o) - sin(a)sin(o), etc.
+				xs[n-first] = rcos * outercos[n] - rsin * outersin[n] + plen * innercos[n];
+				ys[n-first] = rcos * outersin[n] + rsin * outercos[n] + plen * innersin[n];
+			}
+		}
+		
+		/* Returns the ranges of the indices 0 to numpoints-1 where any trochoid may be inside
+		   the rectangle xmin..xmax, ymin..ymax as pairs {first, last, ...} (see
+		   PolytrochoidEvaluator.VisibleRanges()) */
+		public int[] VisibleRanges(int numpoints, double angleincr, double xmin, double ymin, double xmax, double ymax)
+		{
+			ranges = new int[64];
+			rangecount = 0;
+			if (numpoints > 0)  FindRanges(0, numpoints, angleincr, xmin, ymin, xmax, ymax);
+			return Arrays.copyOf(ranges, rangecount);
+		}
+		
+		/* Add the parts of the indices first to last-1 that may be visible to ranges,
+		   splitting them until they are MINRANGE points long */
+		private void FindRanges(int first, int last, double angleincr, double xmin, double ymin, double xmax, double ymax)
+		{
+			int		middle = (first + last - 1) >>> 1;
+			double	halfwidth = (last - 1 - middle) * angleincr;
+			double	angle = middle * angleincr;
+			double	innerangle = angle - (angle * ratioangles);
+			double	oc = Math.cos(angle), os = Math.sin(angle);
+			double	ic = Math.cos(innerangle), is = Math.sin(innerangle);
+			double	outerbound = Math.abs(lenbtwcenters) * Math.min(2.0, halfwidth);
+			double	innerrate = Math.abs(1.0 - ratioangles) * halfwidth;
+			double[] trochoid = new double[3];
+			boolean	visible = false;
+			
+			// the disk around each trochoid's middle point that contains its whole range
+			for (int index = 0; index < numtrochoids && !visible; index++) {
+				getTrochoid(index, trochoid);
+				double x = trochoid[1] * oc - trochoid[2] * os + trochoid[0] * ic;
+				double y = trochoid[1] * os + trochoid[2] * oc + trochoid[0] * is;
+				double bound = outerbound + Math.abs(trochoid[0]) * Math.min(2.0, innerrate);
+				visible = x + bound >= xmin && x - bound <= xmax && y + bound >= ymin && y - bound <= ymax;
+			}
+			if (!visible)  return;
+			
+			if (last - first <= PolytrochoidEvaluator.MINRANGE) {
+				if (rangecount > 0 && ranges[rangecount-1] == first)  ranges[rangecount-1] = last;
+				else {
+					if (rangecount == ranges.length)  ranges = Arrays.copyOf(ranges, rangecount * 2);
+					ranges[rangecount++] = first;
+					ranges[rangecount++] = last;
+				}
+			}
+			else {
+				int half = (first + last) >>> 1;
+				FindRanges(first, half, angleincr, xmin, ymin, xmax, ymax);
+				FindRanges(half, last, angleincr, xmin, ymin, xmax, ymax);
+			}
+		}
+	}
+	
+	/** Draws the series of hypotrochoids on the renderer's thread
+	 *  with copies of the window's parameters.
+	 */
+	private class SeriesJob extends CurveRenderWorker.RenderJob
+	{
+		private SeriesTerms	terms;						// the shared trig functions (and the trochoids' parameters)
+		private double		zoom, centerx, centery;
+		private int			numtrochoids;
+		private float		primaryhue, secondaryhue;
+		
+		public SeriesJob()
+		{
+			super(WINWIDTH, WINHEIGHT);
+			HypotrochoidSeries w = HypotrochoidSeries.this;
+			terms = new SeriesTerms();
+			zoom = w.view.getZoom();
+			centerx = w.centerx + w.view.getPanX();
+			centery = w.centery + w.view.getPanY();
+			numtrochoids = w.numtrochoids;
+			primaryhue = w.primaryhue;
+			secondaryhue = w.secondaryhue;
+		}
+		
+		protected void Render(Graphics2D g)
+		{
+			// The trochoids only differ in their pen length and the rotation of the
+			// outer term, so the trig functions of both angles are shared by all of them.
+			terms.CalculateShown(zoom, centerx, centery, width, height, this);
+			
+			// Draw the trochoids on separate layers in parallel (a batch of as many
+			// as there are processors at a time), then copy the layers in order so
+			// that later hues are drawn over earlier ones as before.
+			int batchsize = Math.min(numtrochoids, Math.max(1, ForkJoinPool.getCommonPoolParallelism()));
+			BufferedImage[] layers = new BufferedImage[batchsize];
+			for (int l = 0; l < batchsize; l++)
+				layers[l] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			for (int first = 0; first < numtrochoids; first += batchsize) {
+				CheckCancelled();
+				int layercount = Math.min(batchsize, numtrochoids - first);
+				LayerTask[] tasks = new LayerTask[layercount];
+				for (int l = 0; l < layercount; l++)  tasks[l] = new LayerTask(first + l, layers[l]);
+				ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+					protected void compute() {
+						invokeAll(tasks);
+					}
+				});
+				CheckCancelled();
+				for (int l = 0; l < layercount; l++)  g.drawImage(layers[l], 0, 0, null);
+			}
+		}
+		
+		/** Draws one trochoid of the series on its own transparent layer
+		 *  from the shared trig functions.
+		 */
+		@SuppressWarnings("serial")
+		private class LayerTask extends RecursiveAction
+		{
+			private int				index;				// which trochoid in the series
+			private BufferedImage	layer;
+			private int				lastx, lasty;		// remember the last point drawn
+			
+			public LayerTask(int index, BufferedImage layer)
+			{
+				this.index = index;
+				this.layer = layer;
+			}
+			
+			protected void compute()
+			{
+				PointBuffer	slice = new PointBuffer(SLICESIZE);
+				int			count = terms.getCount();
+				
+				Graphics2D g = layer.createGraphics();
+				try {
+					// clear the layer from the last batch
+					g.setComposite(AlphaComposite.Clear);
+					g.fillRect(0, 0, width, height);
+					g.setComposite(AlphaComposite.SrcOver);
+					g.setColor(TrochoidColor(index, numtrochoids, primaryhue, secondaryhue));
+					lastx = lasty = -1;
+					for (int first = 0; first < count; first += SLICESIZE) {
+						int last = Math.min(first + SLICESIZE, count);
+						CheckCancelled();
+						terms.Compose(index, first, last, slice);
+						double[] xs = slice.getX();
+						double[] ys = slice.getY();
+						// draw the points relative to our "drawing origin"
+						for (int n = 0; n < last - first; n++) {
+							drawPoint(g, centerx + zoom * xs[n], centery - zoom * ys[n]);
+						}
+					}
+				}
+				finally {
+					g.dispose();
+				}
+			}
+			
+			protected void drawPoint(Graphics g, double x, double y)
+			{
+				int ix = (int)Math.round(x);
+				int iy = (int)Math.round(y);
+				
+				// skip consecutive duplicate points
+				if (ix != lastx || iy != lasty)	{
+					// we have to use drawLine() to draw a single point
+					g.drawLine(ix, iy, ix, iy);
+					lastx = ix;
+					lasty = iy;
+				}
+			}
 		}
 	}
 
@@ -260,104 +579,112 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 		else if	(key == '-') {
 			// '-' decreases the number of lobes by one and repaints the curve
 			SetDrawingParms(numlobes-1, numrevolutions, numtrochoids, penratio, penratiooffset, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '+' || key == '=') {
 			// '+' (or '=') increases the number of lobes by one and repaints the curve
 			SetDrawingParms(numlobes+1, numrevolutions, numtrochoids, penratio, penratiooffset, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '[' || key == '{') {
 			// '[' (or '{') decreases the number of revolutions it takes to draw the curve (and repaints)
 			// Don't allow the value to go below 1.
 			if (numrevolutions > 1) {
 				SetDrawingParms(numlobes, numrevolutions-1, numtrochoids, penratio, penratiooffset, rotationoffset);
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == ']' || key == '}') {
 			// ']' (or '}') increases the number of revolutions it takes to draw the curve (and repaints)
 			SetDrawingParms(numlobes, numrevolutions+1, numtrochoids, penratio, penratiooffset, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == ';') {
 			// ';' decreases the number of trochoids in the series (and repaints)
 			// Don't allow the value to go below 1.
 			if (numtrochoids > 1) {
 				SetDrawingParms(numlobes, numrevolutions, numtrochoids-1, penratio, penratiooffset, rotationoffset);
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == '\'') {
 			// ' increases the number of trochoids in the series (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids+1, penratio, penratiooffset, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == ':') {
 			// ':' decreases the rotation offset between each trochoid in the series (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids, penratio, penratiooffset, rotationoffset-2.0);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '\"') {
 			// " increases the rotation offset between each trochoid in the series (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids, penratio, penratiooffset, rotationoffset+2.0);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == ',') {
 			// ',' decreases the distance between the inner circle's center and the pen (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids, penratio-0.05, penratiooffset, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '.') {
 			// '.' increases the distance between the inner circle's center and the pen (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids, penratio+0.05, penratiooffset, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '<') {
 			// '<' decreases the distance between each trochoid in the series (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids, penratio, penratiooffset-0.005, rotationoffset);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '>') {
 			// '>' increases the distance between each trochoid in the series (and repaints)
 			SetDrawingParms(numlobes, numrevolutions, numtrochoids, penratio, penratiooffset+0.005, rotationoffset);
-			this.repaint();
+			RequestRender();
+		}
+		else if	(key == 'V' || key == 'v') {
+			// 'V' and 'v' write the series to SVG and PDF files
+			ExportVector();
 		}
 		else if	(key == 'R' || key == 'r') {
 			// 'r' and 'R' cause the same curve to be redrawn
 			// RandomizeParms();
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '&') {
 			// '&' decrements the primary color hue (don't allow the value to go below 0).
 			if (iprimaryhue > 0) {
 				SetColorParms(--iprimaryhue, isecondaryhue);
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == '*') {
 			// '*' increments the primary color hue
 			SetColorParms(++iprimaryhue, isecondaryhue);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '(') {
 			// '(' decrements the secondary color hue (don't allow the value to go below 0).
 			if (isecondaryhue > 0) {
 				SetColorParms(iprimaryhue, --isecondaryhue);
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == ')') {
 			// '(' increments the secondary color hue
 			SetColorParms(iprimaryhue, ++isecondaryhue);
-			this.repaint();
+			RequestRender();
+		}
+		else if	(key == 'Z' || key == 'z') {
+			// 'Z' and 'z' show the whole series again ('0' sets a hue)
+			view.Reset();
 		}
 		else if	(Character.isDigit(key)) {
 			// set the primary & secondary color hues: assign 2nd hue to 1st hue & new value to 2nd hue
 			// (takes two key presses to set both to new values)
 			int value = Integer.parseInt("" + key);
 			SetColorParms(isecondaryhue, value);
-			this.repaint();
+			RequestRender();
 		}
 		
 		return;
@@ -369,7 +696,7 @@ public class HypotrochoidSeries extends JFrame implements MouseListener, KeyList
 	public void mouseClicked( MouseEvent event )
 	{
 		RandomizeParms();
-		this.repaint();
+		RequestRender();
 	}
 
 	public void mousePressed( MouseEvent event )	{}
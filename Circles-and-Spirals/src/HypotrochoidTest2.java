@@ -5,6 +5,16 @@
 	
 	http://en.wikipedia.org/wiki/Hypotrochoid
 	
+	A hypotrochoid whose circle ratio is P/Q in lowest terms has P-fold rotational
+	symmetry, so only 1/P of the curve is calculated and the rest is found by
+	rotating those points (see CurveSymmetry).
+	
+	The mouse wheel zooms in and out and dragging pans; 0 goes back to the
+	whole curve.  When zoomed in, the curve is calculated as a polytrochoid
+	of 2 circles with its point density multiplied by the zoom, but only for
+	the ranges of angles that PolytrochoidEvaluator.VisibleRanges() can't
+	rule out of the window.
+	
 	Anthony Kozar
 	October 18, 2014
 	
@@ -26,7 +36,8 @@ public class HypotrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	final private int	WINHEIGHT = 720;
 
 	final private String HELP_MESSAGE = "Click to randomize or use -,+,[,],<,> to adjust the parameters, " +
-            "R to redraw, ! to exit";
+            "R to redraw, 0 to unzoom, ! to exit";
+	final private int	SLICESIZE = 65536;			// number of points calculated at a time when zoomed
 
 	protected double	centerx;
 	protected double	centery;
@@ -41,12 +52,15 @@ public class HypotrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	protected double	ratioradii;					// the ratio innerradius/outerradius
 	protected double	penratio;					// the ratio penlength/innerradius
 	protected double	penlength;					// distance from the center of inner circle to the "pen"
+	protected PointBuffer	points = new PointBuffer();	// calculated points of the curve
+	protected ZoomPan	view;						// mouse wheel zoom and drag pan
 	
 
 	public HypotrochoidTest2()
 	{
 		super("Hypotrochoid Test 2: hypotrochoids in rectangular coordinates");
 		setSize(WINWIDTH, WINHEIGHT);
+		view = new ZoomPan(this);
 		setVisible(true);
 		addMouseListener(this);
 		addKeyListener(this);
@@ -115,10 +129,10 @@ public class HypotrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	
 	public void paint(Graphics g)
 	{
-		final double arcstart = 0.0;							// angle of beginning of arc
-		final double arcend = drevolutions * 2.0 * Math.PI;		// angle of end of arc
-		final double angleincr = Math.PI/2000.0;				// increment at which to draw points
-		double	x1, y1, x, y, lenbtwcenters, innerangle;
+		final double maxangleincr = Math.PI/2000.0;				// max increment at which to draw points
+		double	angle, innerangle, lenbtwcenters, angleincr, sectorangle, zoom, cx, cy;
+		double[] xs, ys;
+		int		gcd, sectors, sectorpoints, numpoints;
 
 		super.paint(g);
 		
@@ -133,17 +147,70 @@ public class HypotrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		
 		g.setColor( Color.blue );
 		lenbtwcenters = outerradius - innerradius;				// distance between circle centers
+		gcd = (int)PolytrochoidPeriod.GCD(Math.abs(numlobes), numrevolutions);
+		zoom = view.getZoom();
+		cx = centerx + view.getPanX();
+		cy = centery + view.getPanY();
+		if (zoom > 1.0) {
+			drawVisible(g, lenbtwcenters, numrevolutions / gcd, zoom, cx, cy);
+			return;
+		}
+		
+		// With the ratio reduced to P/Q, advancing the angle by 2πQ/P rotates the whole
+		// curve by 2πQ/P, so the curve is P copies of its first sector.  We adjust the
+		// angle increment slightly so that the sector is a whole number of points.
+		sectors = Math.max(1, Math.abs(numlobes) / gcd);
+		sectorangle = 2.0 * Math.PI * (numrevolutions / gcd) / sectors;
+		sectorpoints = (int)Math.ceil(sectorangle / maxangleincr);
+		angleincr = sectorangle / sectorpoints;
+		numpoints = sectors * sectorpoints;
+		points.SetSize(numpoints + 1);
+		xs = points.getX();
+		ys = points.getY();
 		
-		// calculate r and theta parametrically based on the total angle of rotation
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
+		// calculate the first sector parametrically based on the total angle of rotation
+		for (int n = 0; n < sectorpoints; n++) {
+			angle = n * angleincr;
 			innerangle = angle - (angle * ratioangles);			// angle of the pen relative to a horizontal line
 			// calculate coordinates of point relative to the origin
-			x1 = lenbtwcenters * Math.cos(angle) + penlength * Math.cos(innerangle);
-			y1 = lenbtwcenters * Math.sin(angle) + penlength * Math.sin(innerangle);
-			// calculate coordinates relative to our "drawing origin"
-			x = centerx + x1;
-			y = centery - y1;
-			drawPoint(g, x, y);
+			xs[n] = lenbtwcenters * Math.cos(angle) + penlength * Math.cos(innerangle);
+			ys[n] = lenbtwcenters * Math.sin(angle) + penlength * Math.sin(innerangle);
+		}
+		CurveSymmetry.Rotate(points, sectorpoints, sectors, sectorangle);
+		xs[numpoints] = xs[0];									// close the curve
+		ys[numpoints] = ys[0];
+		
+		// draw the points relative to our "drawing origin"
+		for (int n = 0; n <= numpoints; n++) {
+			drawPoint(g, cx + zoom * xs[n], cy - zoom * ys[n]);
+		}
+	}
+	
+	/* Draw the parts of a zoomed-in curve of revs revolutions that may be in the window */
+	private void drawVisible(Graphics g, double lenbtwcenters, int revs, double zoom, double cx, double cy)
+	{
+		PolytrochoidEvaluator evaluator = new PolytrochoidEvaluator(2, new double[] {lenbtwcenters, penlength},
+																	new double[] {1.0, ratioangles});
+		// points per revolution (π/2000 apart unzoomed), but few enough that they can be counted with an int
+		int		density = (int)Math.max(1, Math.min(Math.ceil(4000.0 * zoom), (Integer.MAX_VALUE - 1) / revs));
+		double	angleincr = 2.0 * Math.PI / density;
+		int		numpoints = PolytrochoidEvaluator.PointCount(revs, density);
+		PointBuffer	slice = new PointBuffer(SLICESIZE);
+		
+		// the window (plus a pixel) in the units of the calculated points
+		int[] ranges = evaluator.VisibleRanges(numpoints, angleincr,
+											   -(cx + 1.0) / zoom, (cy - getHeight() - 1.0) / zoom,
+											   (getWidth() + 1.0 - cx) / zoom, (cy + 1.0) / zoom);
+		for (int r = 0; r < ranges.length; r += 2) {
+			for (int first = ranges[r]; first < ranges[r+1]; first += SLICESIZE) {
+				int last = Math.min(first + SLICESIZE, ranges[r+1]);
+				evaluator.EvaluateSlice(slice, first, last, angleincr);
+				double[] xs = slice.getX();
+				double[] ys = slice.getY();
+				for (int n = 0; n < last - first; n++) {
+					drawPoint(g, cx + zoom * xs[n], cy - zoom * ys[n]);
+				}
+			}
 		}
 	}
 
@@ -198,6 +265,10 @@ public class HypotrochoidTest2 extends JFrame implements MouseListener, KeyListe
 			// RandomizeParms();
 			this.repaint();
 		}
+		else if	(key == '0') {
+			// '0' shows the whole curve again
+			view.Reset();
+		}
 		else if	(Character.isDigit(key) && key !='0' && key !='1') {
 			// number keys don't do anything
 		}
@@ -12,6 +12,7 @@
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Insets;
 import javax.swing.JFrame;
 
 
@@ -23,12 +24,15 @@ public class LinearSpiral extends JFrame
 	protected double	centerx;
 	protected double	centery;
 	protected double	radius;
+	protected ZoomPan	view;						// mouse wheel zoom and drag pan (0 resets)
 
 	public LinearSpiral()
 	{
 		super("Archimedean spiral");
 		setSize(WINWIDTH, WINHEIGHT);
 		setVisible(true);
+		view = new ZoomPan(this);
+		view.AddResetKey('0');
 
 		// find the center of the window and a radius that will fit
 		centerx = WINWIDTH * 0.5;
@@ -48,17 +52,43 @@ public class LinearSpiral extends JFrame
 		final double arcstart = 0.0;				// angle of beginning of arc
 		//final double arclen = 50.0*Math.PI;			// arclength of arc (in radians)
 		final double arcend = radius;				// angle of end of arc
-		final double angleincr = Math.PI/2500.0;	// increment at which to draw points
-		double	x, y;
+		PointBuffer points = new PointBuffer();
+		double[] xs, ys;
+		Insets	area;
+		double	zoom, cx, cy, tstart, tend;
 
 		super.paint(g);
 		g.setColor( Color.blue );
 		
-		// draw a spiral whose distance from the center increases linearly with the angle
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
-			x = centerx + angle * Math.cos(angle);
-			y = centery - angle * Math.sin(angle);
-			drawPoint(g, x, y);
+		// only calculate the part of the spiral whose radius (which is its angle)
+		// may be in the window, with the points closer together when zoomed in
+		zoom = view.getZoom();
+		cx = centerx + view.getPanX();
+		cy = centery + view.getPanY();
+		area = SpiralClipper.VisibleArea(this);
+		tstart = Math.max(arcstart, SpiralClipper.MinVisibleRadius(cx, cy, area) / zoom);
+		tend = Math.min(arcend, SpiralClipper.MaxVisibleRadius(cx, cy, area) / zoom);
+		if (tstart > tend)  return;
+		
+		// calculate points about one pixel apart along a spiral whose distance
+		// from the center increases linearly with the angle
+		AdaptiveSampler.Sample(new ParametricCurve() {
+			public void PointAt(double angle, double[] result)
+			{
+				double cos = Math.cos(angle);
+				double sin = Math.sin(angle);
+				result[0] = angle * cos;
+				result[1] = angle * sin;
+				result[2] = cos - angle * sin;
+				result[3] = sin + angle * cos;
+			}
+		}, tstart, tend, AdaptiveSampler.PIXELSPACING / zoom, AdaptiveSampler.MAXSTEP, points);
+		
+		// draw the points relative to our "drawing origin"
+		xs = points.getX();
+		ys = points.getY();
+		for (int i = 0; i < points.getSize(); i++) {
+			drawPoint(g, cx + zoom * xs[i], cy - zoom * ys[i]);
 		}
 	}
 
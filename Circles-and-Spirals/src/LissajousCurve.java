@@ -9,6 +9,12 @@
 	
 	where p is the phase difference between the sinusoids.
 	
+	Since sin(at + p) = sin(at)cos(p) + cos(at)sin(p), sin(at) and cos(at) are
+	calculated once for every point and kept until the frequencies or the
+	number of points change.  Changing the phase (with O/P or the animation
+	that M starts) then needs no trig functions for each point.
+	Because the frequencies are integers, only the first quarter of a revolution
+	needs trig functions (see CurveSymmetry) when the point density is divisible by 4.
 	
 	Anthony Kozar
 	February 6, 2015
@@ -67,10 +73,20 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 	protected int		xfrequency;					// frequency of the X oscillator (i.e. "a" in x = sin(at+p))
 	protected int		yfrequency;					// frequency of the Y oscillator (i.e. "b" in y = sin(bt))
 	protected int		xphaseshift;				// phaseshift in 1/8ths of PI (i.e. "p" in x = sin(at+pπ/8))
+	protected PointBuffer	points;					// calculated points of the curve
+	protected double[]	xsin, xcos, ysin;			// sin(at), cos(at) and sin(bt) for each point (independent of the window size)
+	private String		termskey;					// parameters used to calculate xsin[], xcos[] and ysin[]
+	
+	final private int	FRAMEDELAY = 16;			// milliseconds between animation frames (about 60 fps)
+	final private double ANIMSTEP = Math.PI / 120.0;	// phase change per animation frame (1 cycle every 4 sec)
+	protected double	animphase = 0.0;			// extra phaseshift added by the animation (radians)
+	protected javax.swing.Timer	animtimer;			// advances animphase while animating
+	protected PointBuffer	simplified;				// points kept for drawing the curve as a polyline
 
 	// point diagnostics
 	private int			lastx, lasty, totalpoints, duplicatepoints;
 	private boolean		showdiagnostics = false, skipduplicates = true;
+	private boolean		drawpolyline = false;		// draw a simplified polyline instead of points?
 	
 	public LissajousCurve()
 	{
@@ -87,6 +103,11 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 		        WindowResized();
 		    }
 		});
+		addWindowListener(new WindowAdapter() {
+		    public void windowClosed(WindowEvent e) {
+		        animtimer.stop();
+		    }
+		});
 		
 		// allocate space for the circle parameters
 		iradii = new int[MAXCIRCLES];
@@ -95,6 +116,14 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 		angleratios = new double[MAXCIRCLES];
 		radiiratios = new double[MAXCIRCLES];
 		radiidiffs = new double[MAXCIRCLES];
+		points = new PointBuffer();
+		simplified = new PointBuffer();
+		animtimer = new javax.swing.Timer(FRAMEDELAY, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				animphase = (animphase + ANIMSTEP) % (2.0 * Math.PI);
+				repaint();
+			}
+		});
 		
 		// initialize circle parameters
 		for (int i = 0; i < MAXCIRCLES; i++)  iradii[i] = 1;
@@ -360,8 +389,14 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 		calctimestr = String.format("Calc time: %.3f", calctime);
 		drawtimestr = String.format("Draw time: %.3f", drawtime);
 		pointstr = "Points: " + numpoints;
-		dupstr = "Duplicates: " + numduplicates;
-		ptssecstr = String.format("Points/sec: %.3f", (numpoints-numduplicates)/drawtime);
+		if (drawpolyline) {
+			dupstr = "Polyline vertices: " + simplified.getSize();
+			ptssecstr = String.format("Vertices/sec: %.3f", simplified.getSize()/drawtime);
+		}
+		else {
+			dupstr = "Duplicates: " + numduplicates;
+			ptssecstr = String.format("Points/sec: %.3f", (numpoints-numduplicates)/drawtime);
+		}
 		
 		// measure string widths to determine how much space is needed
 		FontMetrics  fm = g.getFontMetrics();
@@ -387,7 +422,7 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 		g.drawString(drawtimestr,  x, drawingArea.top + 2*lineht);
 		g.drawString(pointstr,     x, drawingArea.top + 3*lineht);
 		g.drawString(dupstr,       x, drawingArea.top + 4*lineht);
-		if (skipduplicates)  g.drawString("(skipped)", x, drawingArea.top + 5*lineht);
+		if (skipduplicates && !drawpolyline)  g.drawString("(skipped)", x, drawingArea.top + 5*lineht);
 		g.drawString(ptssecstr,    x, drawingArea.top + 6*lineht);
 	}
 	
@@ -412,6 +447,25 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 		}
 	}
 	
+	/* Draw the points as a polyline after removing the points that are
+	   within CurveSimplifier.TOLERANCE pixels of the simplified line */
+	protected void drawPolyline(Graphics g, PointBuffer points)
+	{
+		CurveSimplifier.Simplify(points, simplified);
+		
+		int		 count = simplified.getSize();
+		int[]	 ixs = new int[count];
+		int[]	 iys = new int[count];
+		double[] xs = simplified.getX();
+		double[] ys = simplified.getY();
+		for (int i = 0; i < count; i++) {
+			ixs[i] = (int)Math.round(centerx + xs[i]);
+			iys[i] = (int)Math.round(centery - ys[i]);
+		}
+		g.drawPolyline(ixs, iys, count);
+		totalpoints = points.getSize();
+	}
+	
 	protected void drawWindowText(Graphics g)
 	{
 		String parmsMessage1, selectedValue, parmsMessage2, workstr;
@@ -446,6 +500,7 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 
 		parmsMessage1 = "x = sin(" + xfrequency + "t + " + xphaseshift + "π/8)";
 		parmsMessage1 = parmsMessage1 + "  ;  y = sin(" + yfrequency + "t)";
+		if (animtimer.isRunning())  parmsMessage1 = parmsMessage1 + "  (animating phase: M)";
 		
 		parmsMessage2 = "  Revolutions: " + (int)revolutions + " [ ]";
 		parmsMessage2 = parmsMessage2 + " (auto-set " + (autoSetRevolutions ? "on": "off") + " (A))";
@@ -474,10 +529,10 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 	
 	public void paint(Graphics g)
 	{
-		final double arcstart = 0.0;							// angle of beginning of arc
-		final double arcend = revolutions * 2.0 * Math.PI;		// angle of end of arc
 		final double angleincr = 2.0 * Math.PI/pointdensity;	// increment at which to draw points
-		double	x, y, innerangle, lastangle, phaseshift;
+		final int numpoints = PolytrochoidEvaluator.PointCount(revolutions, pointdensity);
+		double	phaseshift;
+		double[] xs, ys;
 
 		super.paint(g);
 		// System.out.println("paint() called");
@@ -489,18 +544,33 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 		drawWindowText(g);
 		g.setColor(Color.blue);
 		resetDiagnostics();
-		int pass = (showdiagnostics ? 0 : 1);
 		long drawingtime = 0, calctime = 0;
-		do {
 		long start = System.nanoTime();		   
 		
-		phaseshift = 0.125 * xphaseshift * Math.PI;
-		// draw points along the curve from arcstart to arcend radians
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
-			x = centerx + drawingradius * Math.sin(xfrequency*angle + phaseshift);
-			y = centery - drawingradius * Math.sin(yfrequency*angle);
-			drawPoint(g, x, y);
+		phaseshift = 0.125 * xphaseshift * Math.PI + animphase;
+		// calculate points along the curve from 0 to revolutions*2π radians
+		// from the cached sines and cosines, scaled to the current window size
+		UpdateTerms(numpoints, angleincr);
+		final double cosphase = drawingradius * Math.cos(phaseshift);
+		final double sinphase = drawingradius * Math.sin(phaseshift);
+		points.SetSize(numpoints);
+		xs = points.getX();
+		ys = points.getY();
+		for (int i = 0; i < numpoints; i++) {
+			xs[i] = xsin[i] * cosphase + xcos[i] * sinphase;
+			ys[i] = ysin[i] * drawingradius;
+		}
+		calctime = System.nanoTime() - start;
+		
+		// draw the points relative to our "drawing origin"
+		start = System.nanoTime();
+		if (drawpolyline)  drawPolyline(g, points);
+		else {
+			for (int i = 0; i < numpoints; i++) {
+				drawPoint(g, centerx + xs[i], centery - ys[i]);
+			}
 		}
+		drawingtime = System.nanoTime() - start;
 		
 		/* POLYTROCHOID 
 		// calculate coordinates parametrically based on the total angle of rotation
@@ -523,14 +593,55 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 			if (pass == 1) drawPoint(g, x, y);
 		}
 		*/
-		if (pass == 0)  calctime = System.nanoTime() - start;
-		else  drawingtime = System.nanoTime() - start;
-		}
-		while (++pass < 2);
 		
 		if (showdiagnostics)  drawDiagnostics(g, calctime, drawingtime, totalpoints, duplicatepoints);
 	}
 
+	/* Calculate xsin[], xcos[] and ysin[] unless they are still valid */
+	private void UpdateTerms(int numpoints, double angleincr)
+	{
+		double angle;
+		String key = xfrequency + ":" + yfrequency + ":" + numpoints + ":" + angleincr;
+		
+		if (key.equals(termskey))  return;
+		if (xsin == null || xsin.length < numpoints) {
+			xsin = new double[numpoints];
+			xcos = new double[numpoints];
+			ysin = new double[numpoints];
+		}
+		
+		// Shifting the angle by π (half = pointdensity/2 samples) multiplies sin(at) and cos(at)
+		// by (-1)^a, and reflecting it about π/2 (quarter samples) turns sin(at) into
+		// -(-1)^a sin(at) and cos(at) into (-1)^a cos(at).  So when the samples line up
+		// with π/2 only the first quarter of a revolution needs trig functions.
+		final int half = ((pointdensity & 1) == 0) ? pointdensity / 2 : 0;
+		final int quarter = ((pointdensity & 3) == 0) ? pointdensity / 4 : 0;
+		final double xsign = ((xfrequency & 1) == 0) ? 1.0 : -1.0;		// (-1)^a
+		final double ysign = ((yfrequency & 1) == 0) ? 1.0 : -1.0;		// (-1)^b
+		int count = numpoints;
+		
+		if (quarter > 0)  count = Math.min(numpoints, quarter + 1);
+		else if (half > 0)  count = Math.min(numpoints, half);
+		for (int i = 0; i < count; i++) {
+			angle = i * angleincr;
+			xsin[i] = Math.sin(xfrequency*angle);
+			xcos[i] = Math.cos(xfrequency*angle);
+			ysin[i] = Math.sin(yfrequency*angle);
+		}
+		if (quarter > 0) {
+			int end = Math.min(numpoints, half);
+			CurveSymmetry.Mirror(xsin, quarter, end, -xsign);
+			CurveSymmetry.Mirror(xcos, quarter, end, xsign);
+			CurveSymmetry.Mirror(ysin, quarter, end, -ysign);
+		}
+		if (half > 0) {
+			CurveSymmetry.Repeat(xsin, half, numpoints, xsign);
+			CurveSymmetry.Repeat(xcos, half, numpoints, xsign);
+			CurveSymmetry.Repeat(ysin, half, numpoints, ysign);
+		}
+		termskey = key;
+	}
+
 	public void WindowResized()
 	{
 		// System.out.println("WindowResized() called");
@@ -663,6 +774,12 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 			++xphaseshift;
 			this.repaint();
 		}
+		else if	(key == 'm' || key == 'M') {
+			// 'm' and 'M' start or stop animating the phaseshift of the X oscillator
+			if (animtimer.isRunning())  animtimer.stop();
+			else  animtimer.start();
+			this.repaint();
+		}
 		else if	(key == 'a' || key == 'A') {
 			// 'a' and 'A' toggle the automatic setting of the num of revolutions
 			autoSetRevolutions = !autoSetRevolutions;
@@ -678,6 +795,11 @@ public class LissajousCurve extends JFrame implements MouseListener, KeyListener
 			skipduplicates = !skipduplicates;
 			this.repaint();
 		}
+		else if	(key == 'l' || key == 'L') {
+			// 'l' and 'L' toggle whether the curve is drawn as a simplified polyline
+			drawpolyline = !drawpolyline;
+			this.repaint();
+		}
 		else if	(key == 'r' || key == 'R') {
 			// 'r' and 'R' cause the same curve to be redrawn
 			// RandomizeParms();
@@ -12,6 +12,14 @@
 	
 	where p is the phase difference between the sinusoids.
 	
+	The mouse wheel zooms in and out and dragging pans; 0 goes back to the
+	whole curve.  When zoomed in, the points are calculated with the point
+	density multiplied by the zoom, but only for the ranges of angles that
+	may be in the window: like PolytrochoidEvaluator.VisibleRanges(), a
+	range of half-width h stays within min(2, |a|h) + min(2, |b|h) plus
+	sum(|radiidiffs[i]| * min(2, |rate[i]| * h)) of its middle point, so the
+	ranges whose disks miss the window are skipped.
+	
 	
 	Anthony Kozar
 	April 1, 2015
@@ -42,7 +50,7 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 	// final private double initpenpos = 0.0;
 	
 	final private String HELP_MESSAGE = "Click to randomize or use the arrow keys,<,>,[,],-,+ to adjust the parameters, " +
-            "A/Q to toggle auto-set, R to redraw, ! to exit";
+            "A/Q to toggle auto-set, R to redraw, 0 to unzoom, V to export, ! to exit";
 
 	final private int	MARGINSIZE = 5;
 	protected Insets	drawingArea;				// visible area of window minus margins (right & bottom are coords not insets)
@@ -71,8 +79,16 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 	protected int		yfrequency;					// frequency of the Y oscillator (i.e. "b" in y = sin(bt))
 	protected int		xphaseshift;				// phaseshift in 1/8ths of PI (i.e. "p" in x = sin(at+pπ/8))
 
+	protected CurveRenderWorker	renderer = new CurveRenderWorker(this);	// draws the curve in the background
+	protected PointBuffer	points = new PointBuffer();	// calculated points of the curve (used by renderer only)
+	private String		pointskey;					// parameters of the curve in points (null if it is incomplete)
+
+	final private int	SLICESIZE = 65536;			// number of points calculated between checks for cancellation
+	final private int	RESIZEDELAY = 100;			// milliseconds without resize events before redrawing
+	protected javax.swing.Timer	resizetimer;		// redraws the curve once the window stops changing size
+	protected ZoomPan	view;						// zoom and pan of the curve
+
 	// point diagnostics
-	private int			lastx, lasty, totalpoints, duplicatepoints;
 	private boolean		showdiagnostics = false, skipduplicates = true;
 	
 	public LissajousTrochoid()
@@ -82,6 +98,11 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		Rectangle usableSpace = GetAvailableWindowSpace();
 		setSize((int)usableSpace.getWidth(), (int)usableSpace.getHeight());
 		setLocation(usableSpace.getLocation());
+		view = new ZoomPan(this, false, new Runnable() {
+			public void run() {
+				RequestRender();
+			}
+		});
 		setVisible(true);
 		addMouseListener(this);
 		addKeyListener(this);
@@ -90,6 +111,18 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		        WindowResized();
 		    }
 		});
+		addWindowListener(new WindowAdapter() {
+		    public void windowClosed(WindowEvent e) {
+		        resizetimer.stop();
+		        renderer.Shutdown();
+		    }
+		});
+		resizetimer = new javax.swing.Timer(RESIZEDELAY, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				RequestRender();
+			}
+		});
+		resizetimer.setRepeats(false);
 		
 		// allocate space for the circle parameters
 		iradii = new int[MAXCIRCLES];
@@ -117,6 +150,7 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		// autoSetDensity = false;
 		revolutions = 1.0;
 		pointdensity = 10000;
+		RequestRender();
 	}
 	
 	private Rectangle GetAvailableWindowSpace()
@@ -268,6 +302,22 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		penlength = radiidiffs[numcircles-1] = pixradii[numcircles-1] * penratio;
 	}
 	
+	/* Write the curve as it is shown in the window to SVG and PDF files (see VectorExporter) */
+	private void ExportVector()
+	{
+		CurveParms	parms = new CurveParms(revolutions, Arrays.copyOf(iradii, numcircles), penratio,
+										   xfrequency, yfrequency, xphaseshift);
+		PointBuffer	points = new PointBuffer();
+		int[]		ranges = null;
+		
+		// (a zoomed curve is calculated at the zoomed density, but only where it may be in the window)
+		if (view.getZoom() > 1.0)  ranges = new CurveJob().CalculateVisible(points);
+		else  parms.Calculate(1.0, Math.min(pointdensity, parms.PointDensity(CurveParms.MAXPOINTS)), points);
+		VectorExporter.WriteFiles("lissajous-" + System.currentTimeMillis(), getWidth(), getHeight(),
+								  new PointBuffer[] {points}, new int[][] {ranges}, new Color[] {Color.blue},
+								  centerx + view.getPanX(), centery + view.getPanY(), drawingradius * view.getZoom());
+	}
+	
 	private void RandomizeParms()
 	{
 		int circles;
@@ -348,24 +398,18 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 				                 this.getWidth()  - (visibleArea.right  + MARGINSIZE));
 	}
 
-	private void resetDiagnostics()
-	{
-		totalpoints = duplicatepoints = 0;
-		lastx = lasty = -1;
-	}
-	
-	private void drawDiagnostics(Graphics g, long nscalctime, long nsdrawtime, int numpoints, int numduplicates)
+	private void drawDiagnostics(Graphics g, CurveJob job)
 	{
 		String	calctimestr, drawtimestr, pointstr, dupstr, ptssecstr;
 		double	calctime, drawtime;
 		
-		calctime = nscalctime * 0.000000001;				// convert from nanoseconds to seconds
-		drawtime = nsdrawtime * 0.000000001;
+		calctime = job.calctime * 0.000000001;				// convert from nanoseconds to seconds
+		drawtime = job.drawingtime * 0.000000001;
 		calctimestr = String.format("Calc time: %.3f", calctime);
 		drawtimestr = String.format("Draw time: %.3f", drawtime);
-		pointstr = "Points: " + numpoints;
-		dupstr = "Duplicates: " + numduplicates;
-		ptssecstr = String.format("Points/sec: %.3f", (numpoints-numduplicates)/drawtime);
+		pointstr = "Points: " + job.totalpoints;
+		dupstr = "Duplicates: " + job.duplicatepoints;
+		ptssecstr = String.format("Points/sec: %.3f", (job.totalpoints-job.duplicatepoints)/drawtime);
 		
 		// measure string widths to determine how much space is needed
 		FontMetrics  fm = g.getFontMetrics();
@@ -391,31 +435,10 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		g.drawString(drawtimestr,  x, drawingArea.top + 2*lineht);
 		g.drawString(pointstr,     x, drawingArea.top + 3*lineht);
 		g.drawString(dupstr,       x, drawingArea.top + 4*lineht);
-		if (skipduplicates)  g.drawString("(skipped)", x, drawingArea.top + 5*lineht);
+		if (job.skipduplicates)  g.drawString("(skipped)", x, drawingArea.top + 5*lineht);
 		g.drawString(ptssecstr,    x, drawingArea.top + 6*lineht);
 	}
 	
-	protected void drawPoint(Graphics g, double x, double y)
-	{
-		int ix = (int)Math.round(x);
-		int iy = (int)Math.round(y);
-		
-		++totalpoints;
-		if (ix == lastx && iy == lasty)	{
-			++duplicatepoints;
-			if (!skipduplicates) {
-				// we have to use drawLine() to draw a single point
-				g.drawLine(ix, iy, ix, iy);				
-			}
-		}
-		else {
-			// we have to use drawLine() to draw a single point
-			g.drawLine(ix, iy, ix, iy);
-			lastx = ix;
-			lasty = iy;
-		}
-	}
-	
 	protected void drawWindowText(Graphics g)
 	{
 		String parmsMessage1, selectedValue, parmsMessage2, parmsMessage3, workstr;
@@ -475,11 +498,6 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 	
 	public void paint(Graphics g)
 	{
-		final double arcstart = 0.0;							// angle of beginning of arc
-		final double arcend = revolutions * 2.0 * Math.PI;		// angle of end of arc
-		final double angleincr = 2.0 * Math.PI/pointdensity;	// increment at which to draw points
-		double	x, y, innerangle, lastangle, phaseshift;
-
 		super.paint(g);
 		// System.out.println("paint() called");
 		
@@ -487,43 +505,285 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		g.setColor(Color.white);
 		g.fillRect(0, 0, this.getWidth(), this.getHeight());
 
+		// copy the last curve finished by the renderer (it may be a little
+		// out of date while a new one is being drawn)
+		CurveJob job = (CurveJob)renderer.getFinished();
+		if (job != null)  g.drawImage(job.getImage(), 0, 0, null);
+		
 		drawWindowText(g);
-		g.setColor(Color.blue);
-		resetDiagnostics();
-		int pass = (showdiagnostics ? 0 : 1);
-		long drawingtime = 0, calctime = 0;
-		do {
-		long start = System.nanoTime();		   
-		
-		phaseshift = 0.125 * xphaseshift * Math.PI;
-		// calculate coordinates parametrically based on the total angle of rotation
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
-			// Calculate coordinates along the Lissajous curve relative to the origin
-			// which will be used as the center of the first inner circle.
-			// (multiply by radiidiffs[0] instead of drawingradius ?)
-			x = drawingradius * Math.sin(xfrequency*angle + phaseshift);
-			y = drawingradius * Math.sin(yfrequency*angle);
-			lastangle = angle;
+		if (showdiagnostics && job != null)  drawDiagnostics(g, job);
+	}
+
+	/* Ask the renderer to draw the curve with the current parameters and repaint */
+	private void RequestRender()
+	{
+		if (radiidiffs == null)  return;		// the constructor hasn't allocated the parameters yet
+		renderer.Request(new CurveJob());
+		this.repaint();
+	}
+	
+	/** Draws the curve on the renderer's thread with copies of the window's
+	 *  parameters, and keeps the diagnostics for the finished image.
+	 *
+	 *  The points are calculated for a drawing radius of 1 and scaled when they
+	 *  are drawn, so they don't have to be recalculated when the window is resized.
+	 */
+	private class CurveJob extends CurveRenderWorker.RenderJob
+	{
+		// copies of the window's parameters
+		private int			numcircles, xfrequency, yfrequency, xphaseshift, pointdensity;
+		private double[]	angleratios, radiidiffs;
+		private double		revolutions, drawingradius, zoom, scale, centerx, centery;
+		private boolean		skipduplicates;
+		private String		key;					// parameters that determine the calculated points
+		
+		// ranges of indices found by FindRanges()
+		private int[]		ranges;
+		private int			rangecount;
+		private double[]	rates;					// turning rate of each circle relative to the main angle
+		private PointBuffer	probe = new PointBuffer(1);
+		
+		// point diagnostics
+		private long		calctime, drawingtime;
+		private int			lastx, lasty, totalpoints, duplicatepoints;
+		
+		public CurveJob()
+		{
+			super(LissajousTrochoid.this.getWidth(), LissajousTrochoid.this.getHeight());
+			LissajousTrochoid w = LissajousTrochoid.this;
+			numcircles = w.numcircles;
+			angleratios = Arrays.copyOf(w.angleratios, w.numcircles);
+			drawingradius = w.drawingradius;
+			radiidiffs = new double[numcircles];
+			for (int i = 0; i < numcircles; i++)  radiidiffs[i] = w.radiidiffs[i] / drawingradius;
+			xfrequency = w.xfrequency;
+			yfrequency = w.yfrequency;
+			xphaseshift = w.xphaseshift;
+			revolutions = w.revolutions;
+			pointdensity = w.pointdensity;
+			zoom = w.view.getZoom();
+			scale = drawingradius * zoom;
+			centerx = w.centerx + w.view.getPanX();
+			centery = w.centery + w.view.getPanY();
+			skipduplicates = w.skipduplicates;
+			
+			StringBuilder sb = new StringBuilder();
+			sb.append(numcircles).append(':');
+			for (int i = 0; i < numcircles; i++)  sb.append(w.iradii[i]).append('/');
+			sb.append(':').append(w.penratio).append(':').append(revolutions).append(':').append(pointdensity);
+			sb.append(':').append(xfrequency).append(':').append(yfrequency).append(':').append(xphaseshift);
+			key = sb.toString();
+		}
+		
+		protected void Render(Graphics2D g)
+		{
+			final double angleincr = 2.0 * Math.PI/pointdensity;	// increment at which to draw points
+			final double phaseshift = 0.125 * xphaseshift * Math.PI;
+			final int numpoints = (int)(revolutions * pointdensity) + 1;
+			final double[] xs, ys;
+			long	start;
+			
+			g.setColor(Color.blue);
+			totalpoints = duplicatepoints = 0;
+			lastx = lasty = -1;
+			if (zoom > 1.0) {
+				RenderVisible(g, phaseshift);
+				return;
+			}
+			
+			// calculate coordinates parametrically based on the total angle of rotation
+			// (unless the last job already calculated them, e.g. before the window was resized)
+			start = System.nanoTime();
+			if (!key.equals(pointskey)) {
+				pointskey = null;
+				points.SetSize(numpoints);
+				Calculate(points, 0, numpoints, angleincr, phaseshift);
+				pointskey = key;
+			}
+			calctime = System.nanoTime() - start;
+			
+			// draw the points relative to our "drawing origin"
+			start = System.nanoTime();
+			xs = points.getX();
+			ys = points.getY();
+			for (int n = 0; n < numpoints; n++) {
+				if ((n & (SLICESIZE-1)) == 0)  CheckCancelled();
+				drawPoint(g, centerx + scale * xs[n], centery - scale * ys[n]);
+			}
+			drawingtime = System.nanoTime() - start;
+		}
+		
+		/* Calculate and draw only the parts of a zoomed curve that may be in the window,
+		   with the point density multiplied by the zoom (these points aren't kept) */
+		private void RenderVisible(Graphics2D g, double phaseshift)
+		{
+			long	start = System.nanoTime();
+			final int density = ZoomedDensity();
+			final double angleincr = 2.0 * Math.PI/density;
+			PointBuffer slice = new PointBuffer(SLICESIZE);
+			
+			FindVisible(density, phaseshift);
+			calctime = System.nanoTime() - start;
+			for (int r = 0; r < rangecount; r += 2) {
+				for (int first = ranges[r]; first < ranges[r+1]; first += SLICESIZE) {
+					int last = Math.min(first + SLICESIZE, ranges[r+1]);
+					start = System.nanoTime();
+					slice.SetSize(last - first);
+					Calculate(slice, first, last, angleincr, phaseshift);
+					calctime += System.nanoTime() - start;
+					start = System.nanoTime();
+					double[] xs = slice.getX();
+					double[] ys = slice.getY();
+					for (int n = 0; n < last - first; n++) {
+						drawPoint(g, centerx + scale * xs[n], centery - scale * ys[n]);
+					}
+					drawingtime += System.nanoTime() - start;
+				}
+			}
+		}
+		
+		/* Calculate the points that RenderVisible() draws into points, one range after
+		   another, and return where each range is in points {first, last, ...} */
+		public int[] CalculateVisible(PointBuffer points)
+		{
+			final int density = ZoomedDensity();
+			final double angleincr = 2.0 * Math.PI/density;
+			final double phaseshift = 0.125 * xphaseshift * Math.PI;
+			int		size = 0;
+			
+			FindVisible(density, phaseshift);
+			for (int r = 0; r < rangecount; r += 2)  size += ranges[r+1] - ranges[r];
+			points.SetSize(size);
+			int[] result = new int[rangecount];
+			PointBuffer slice = new PointBuffer(SLICESIZE);
+			size = 0;
+			for (int r = 0; r < rangecount; r += 2) {
+				result[r] = size;
+				for (int first = ranges[r]; first < ranges[r+1]; first += SLICESIZE) {
+					int last = Math.min(first + SLICESIZE, ranges[r+1]);
+					slice.SetSize(last - first);
+					Calculate(slice, first, last, angleincr, phaseshift);
+					System.arraycopy(slice.getX(), 0, points.getX(), size, last - first);
+					System.arraycopy(slice.getY(), 0, points.getY(), size, last - first);
+					size += last - first;
+				}
+				result[r+1] = size;
+			}
+			return result;
+		}
+		
+		/* Returns the point density of a zoomed curve: the density multiplied by the zoom,
+		   but few enough points that they can be counted with an int */
+		private int ZoomedDensity()
+		{
+			long	density = (long)Math.ceil(pointdensity * zoom);
+			
+			return (int)Math.max(1, Math.min(density, (long)((Integer.MAX_VALUE - 1) / revolutions)));
+		}
+		
+		/* Find the ranges of a zoomed curve's indices (at density points per revolution)
+		   whose points may be in the window */
+		private void FindVisible(int density, double phaseshift)
+		{
+			final double angleincr = 2.0 * Math.PI/density;
+			final int numpoints = (int)(revolutions * density) + 1;
+			
+			// the window (plus a pixel) in the units of the calculated points
+			rates = new double[numcircles];
+			rates[0] = 1.0;
+			for (int i = 1; i < numcircles; i++)  rates[i] = rates[i-1] - (rates[i-1] * angleratios[i]);
+			ranges = new int[64];
+			rangecount = 0;
+			FindRanges(0, numpoints, angleincr, phaseshift, -(centerx + 1.0) / scale, (centery - height - 1.0) / scale,
+					   (width + 1.0 - centerx) / scale, (centery + 1.0) / scale);
+		}
+		
+		/* Add the parts of the indices first to last-1 whose points may be inside the rectangle
+		   xmin..xmax, ymin..ymax to ranges, splitting them until they are MINRANGE points long */
+		private void FindRanges(int first, int last, double angleincr, double phaseshift,
+								double xmin, double ymin, double xmax, double ymax)
+		{
+			int		middle = (first + last - 1) >>> 1;
+			double	halfwidth = (last - 1 - middle) * angleincr;
+			double	xbound, ybound, bound = 0.0;
+			
+			// the box around the middle point that contains the whole range
+			Calculate(probe, middle, middle + 1, angleincr, phaseshift);
 			for (int i = 1; i < numcircles; i++) {
-				// calculate the angle to the next circle center (or the pen) relative to a horizontal line
-				innerangle = lastangle - (lastangle * angleratios[i]);
-				// calculate coordinates of next circle center (or the pen) by finding the offsets from last center
-				x += radiidiffs[i] * Math.cos(innerangle);
-				y += radiidiffs[i] * Math.sin(innerangle);				
-				lastangle = innerangle;
+				bound += Math.abs(radiidiffs[i]) * Math.min(2.0, Math.abs(rates[i]) * halfwidth);
+			}
+			xbound = bound + Math.min(2.0, Math.abs(xfrequency) * halfwidth);
+			ybound = bound + Math.min(2.0, Math.abs(yfrequency) * halfwidth);
+			double x = probe.getX()[0];
+			double y = probe.getY()[0];
+			if (x + xbound < xmin || x - xbound > xmax || y + ybound < ymin || y - ybound > ymax)  return;
+			
+			if (last - first <= PolytrochoidEvaluator.MINRANGE) {
+				if (rangecount > 0 && ranges[rangecount-1] == first)  ranges[rangecount-1] = last;
+				else {
+					if (rangecount == ranges.length)  ranges = Arrays.copyOf(ranges, rangecount * 2);
+					ranges[rangecount++] = first;
+					ranges[rangecount++] = last;
+				}
+			}
+			else {
+				int half = (first + last) >>> 1;
+				FindRanges(first, half, angleincr, phaseshift, xmin, ymin, xmax, ymax);
+				FindRanges(half, last, angleincr, phaseshift, xmin, ymin, xmax, ymax);
 			}
-			// calculate coordinates relative to our "drawing origin"
-			x = centerx + x;
-			y = centery - y;
-			if (pass == 1) drawPoint(g, x, y);
 		}
 		
-		if (pass == 0)  calctime = System.nanoTime() - start;
-		else  drawingtime = System.nanoTime() - start;
+		/* Calculate the points with indices first to last-1 for a drawing radius of 1
+		   into points[0] to points[last-first-1] (points must already be large enough) */
+		private void Calculate(PointBuffer points, int first, int last, double angleincr, double phaseshift)
+		{
+			final double[] xs, ys;
+			double	x, y, angle, innerangle, lastangle;
+			
+			xs = points.getX();
+			ys = points.getY();
+			for (int n = first; n < last; n++) {
+				if ((n & (SLICESIZE-1)) == 0)  CheckCancelled();
+				angle = n * angleincr;
+				// Calculate coordinates along the Lissajous curve relative to the origin
+				// which will be used as the center of the first inner circle.
+				// (multiply by radiidiffs[0] instead of 1 ?)
+				x = Math.sin(xfrequency*angle + phaseshift);
+				y = Math.sin(yfrequency*angle);
+				lastangle = angle;
+				for (int i = 1; i < numcircles; i++) {
+					// calculate the angle to the next circle center (or the pen) relative to a horizontal line
+					innerangle = lastangle - (lastangle * angleratios[i]);
+					// calculate coordinates of next circle center (or the pen) by finding the offsets from last center
+					x += radiidiffs[i] * Math.cos(innerangle);
+					y += radiidiffs[i] * Math.sin(innerangle);				
+					lastangle = innerangle;
+				}
+				xs[n-first] = x;
+				ys[n-first] = y;
+			}
 		}
-		while (++pass < 2);
 		
-		if (showdiagnostics)  drawDiagnostics(g, calctime, drawingtime, totalpoints, duplicatepoints);
+		protected void drawPoint(Graphics g, double x, double y)
+		{
+			int ix = (int)Math.round(x);
+			int iy = (int)Math.round(y);
+			
+			++totalpoints;
+			if (ix == lastx && iy == lasty)	{
+				++duplicatepoints;
+				if (!skipduplicates) {
+					// we have to use drawLine() to draw a single point
+					g.drawLine(ix, iy, ix, iy);				
+				}
+			}
+			else {
+				// we have to use drawLine() to draw a single point
+				g.drawLine(ix, iy, ix, iy);
+				lastx = ix;
+				lasty = iy;
+			}
+		}
 	}
 
 	public void WindowResized()
@@ -532,6 +792,9 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		SetOrigin();
 		SetScale();
 		SetDrawingParms(numcircles, iradii, penratio);
+		// wait until the window stops changing size before drawing the curve
+		// (the points don't depend on the size, so they won't be recalculated)
+		if (resizetimer != null)  resizetimer.restart();
 		this.repaint();
 	}
 	
@@ -547,25 +810,25 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 			// Right arrow key increases the X oscillator frequency
 			// System.out.println("Received tab or right arrow");
 			++xfrequency;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == KeyEvent.VK_LEFT) {
 			// Left arrow key decreases the X oscillator frequency
 			// System.out.println("Received left arrow");
 			--xfrequency;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == KeyEvent.VK_UP) {
 			// Up arrow key increases the Y oscillator frequency
 			// System.out.println("Received up arrow");
 			++yfrequency;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == KeyEvent.VK_DOWN) {
 			// Down arrow key decreases the Y oscillator frequency
 			// System.out.println("Received down arrow");
 			--yfrequency;
-			this.repaint();
+			RequestRender();
 		}
 
 		/* POLYTROCHOID 
@@ -617,46 +880,46 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 			// '-' decreases the point density and repaints the curve
 			if (pointdensity > 100) {
 				pointdensity -= 100;
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == '+' || key == '=') {
 			// '+' (or '=') increases the point density and repaints the curve
 			pointdensity += 100;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '[' || key == '{') {
 			// '[' (or '{') decreases the number of revolutions it takes to draw the curve (and repaints)
 			// Don't allow the value to go below 1.
 			if (revolutions > 1) {
 				--revolutions;
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == ']' || key == '}') {
 			// ']' (or '}') increases the number of revolutions it takes to draw the curve (and repaints)
 			++revolutions;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '<' || key == ',') {
 			// '<' (or ',') decreases the distance between the inner circle's center and the pen (and repaints)
 			SetPenLength(penratio-0.05);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '>' || key == '.') {
 			// '>' (or '.') increases the distance between the inner circle's center and the pen (and repaints)
 			SetPenLength(penratio+0.05);
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == 'o' || key == 'O') {
 			// 'o' (or 'O') decreases the phaseshift of the X oscillator (and repaints)
 			--xphaseshift;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == 'p' || key == 'P') {
 			// 'p' (or 'P') increases the phaseshift of the X oscillator (and repaints)
 			++xphaseshift;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == 'a' || key == 'A') {
 			// 'a' and 'A' toggle the automatic setting of the num of revolutions
@@ -671,18 +934,26 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 		else if	(key == 's' || key == 'S') {
 			// 's' and 'S' toggle whether consecutive duplicate points are plotted again
 			skipduplicates = !skipduplicates;
-			this.repaint();
+			RequestRender();
+		}
+		else if	(key == 'v' || key == 'V') {
+			// 'v' and 'V' write the curve to SVG and PDF files
+			ExportVector();
 		}
 		else if	(key == 'r' || key == 'R') {
 			// 'r' and 'R' cause the same curve to be redrawn
 			// RandomizeParms();
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == 'q' || key == 'Q') {
 			// 'q' and 'Q' toggle the automatic setting of the point density
 			autoSetDensity = !autoSetDensity;
 			this.repaint();
 		}
+		else if	(key == '0') {
+			// '0' shows the whole curve again
+			view.Reset();
+		}
 		else if	(Character.isDigit(key) && key !='0' && key !='1') {
 			// number keys don't do anything
 		}
@@ -705,7 +976,7 @@ public class LissajousTrochoid extends JFrame implements MouseListener, KeyListe
 	public void mouseClicked( MouseEvent event )
 	{
 		RandomizeParms();
-		this.repaint();
+		RequestRender();
 	}
 
 	public void mousePressed( MouseEvent event )	{}
@@ -12,6 +12,7 @@
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Insets;
 import javax.swing.JFrame;
 
 
@@ -23,12 +24,16 @@ public class LogarithmicSpiral extends JFrame
 	protected double	centerx;
 	protected double	centery;
 	protected double	radius;
+	protected PointBuffer	points = new PointBuffer();
+	protected ZoomPan	view;						// mouse wheel zoom and drag pan (0 resets)
 	
 	public LogarithmicSpiral()
 	{
 		super("A logarithmic spiral");
 		setSize(WINWIDTH, WINHEIGHT);
 		setVisible(true);
+		view = new ZoomPan(this);
+		view.AddResetKey('0');
 	
 		// find the center of the window and a radius that will fit
 		centerx = WINWIDTH * 0.5;
@@ -46,21 +51,27 @@ public class LogarithmicSpiral extends JFrame
 	public void paint(Graphics g)
 	{
 		final double arcstart = 0.0;				// angle of beginning of arc
-		final double angleincr = Math.PI/5000.0;	// increment at which to draw points
-		double	r, angle, x, y;
+		Insets	area;
+		double	angle, rmax, zoom, cx, cy;
+		int		numpoints;
 		
 		super.paint(g);
 		g.setColor( Color.blue );
 		
-		// draws a logarithmic spiral
-		r = 0.0;
-		angle = arcstart;
-		while (r < radius) {
-			r = Math.exp(0.2*angle);
-			x = centerx + r * Math.cos(angle);
-			y = centery - r * Math.sin(angle);
-			drawPoint(g, x, y);
-			angle += angleincr;
+		// draws a logarithmic spiral with points about a pixel apart
+		// (only the radii that can be in the window, which are smaller when zoomed in)
+		zoom = view.getZoom();
+		cx = centerx + view.getPanX();
+		cy = centery + view.getPanY();
+		area = SpiralClipper.VisibleArea(this);
+		angle = Math.max(arcstart, SpiralClipper.LogarithmicAngle(1.0, 0.2,
+		                 SpiralClipper.MinVisibleRadius(cx, cy, area) / zoom));
+		rmax = Math.min(radius, SpiralClipper.MaxVisibleRadius(cx, cy, area) / zoom);
+		numpoints = SpiralSampler.Logarithmic(1.0, 0.2, angle, rmax, SpiralSampler.PIXELSPACING / zoom, points);
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		for (int i = 0; i < numpoints; i++) {
+			drawPoint(g, cx + zoom * xs[i], cy - zoom * ys[i]);
 		}
 	}
 	
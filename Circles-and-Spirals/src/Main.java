@@ -3,6 +3,10 @@
 	Simple main program to combine all of the individual programs/classes
 	of the Circles and Spirals project into one.
 	
+	The curve menus are built from CurveRegistry, so a new curve only needs
+	a CurveProvider listed in META-INF/services/CurveProvider to appear here.
+	Each curve's window class is loaded when it is first chosen.
+	
 	Anthony Kozar
 	August 14, 2015
 	
@@ -23,21 +27,6 @@ public class Main extends JFrame
 	private final static int MenuCmd_About					= 2;
 	private final static int MenuCmd_Help					= 3;
 
-	private final static int MenuCmd_Circle					= 4;
-	private final static int MenuCmd_Lissajous				= 5;
-	
-	private final static int MenuCmd_Archimedean_Spiral		= 6;
-	private final static int MenuCmd_Fermats_Spiral			= 7;
-	private final static int MenuCmd_Logarithmic_Spiral		= 8;
-	private final static int MenuCmd_Hyperbolic_Spiral		= 9;
-	private final static int MenuCmd_Lituus					= 10;
-	private final static int MenuCmd_Double_Lituus			= 11;
-	private final static int MenuCmd_Anthonys_Spiral		= 12;
-
-	private final static int MenuCmd_Hypotrochoids			= 13;
-	private final static int MenuCmd_Polytrochoids			= 14;
-	private final static int MenuCmd_Lissajous_Trochoids	= 15;
-
 	private ActionListener	menulistener;
 
 	public static void main(String[] args) {
@@ -66,7 +55,8 @@ public class Main extends JFrame
 				// System.out.println("Menu listener command: " + event.getActionCommand());
 				item = (MyMenuItem)event.getSource();
 				// System.out.println("  command ID: " + item.getCommandID());
-				DoMenuItem(item.getCommandID());
+				if (item.getCurve() != null)  OpenCurve(item.getCurve());
+				else  DoMenuItem(item.getCommandID());
 			}
 		};
 		
@@ -76,12 +66,13 @@ public class Main extends JFrame
 	}
 	
 	/** Simple extension of JMenuItem that allows associating a unique
-	 *  command ID with a menu item.  This ID can be used to distinguish
-	 *  between menu items in a shared event listener.
+	 *  command ID (or a curve) with a menu item.  This ID can be used to
+	 *  distinguish between menu items in a shared event listener.
 	 */
 	private class MyMenuItem extends JMenuItem
 	{
-		private int	commandID;
+		private int				commandID;
+		private CurveProvider	curve;
 		
 		public MyMenuItem(String text, int commandID)
 		{
@@ -95,7 +86,14 @@ public class Main extends JFrame
 			this.commandID = commandID;
 		}
 		
+		public MyMenuItem(CurveProvider curve)
+		{
+			super(curve.getName());
+			this.curve = curve;
+		}
+		
 		public int getCommandID() { return commandID; };
+		public CurveProvider getCurve() { return curve; };
 	}
 	
 	private void AddMenuItem(JMenu menu, String menutext, int commandID, int mnemonic)
@@ -119,40 +117,28 @@ public class Main extends JFrame
 	private JMenuBar CreateMenubar()
 	{
 		JMenuBar	mbar;
-		JMenu		file, edit, curves, spirals, trochoids, help;
+		JMenu		file, edit, help;
 		
 		mbar = new JMenuBar();
 		file = new JMenu("File");
 		edit = new JMenu("Edit");
-		curves = new JMenu("Curves");
-		spirals = new JMenu("Spirals");
-		trochoids = new JMenu("Trochoids");
 		help = new JMenu("Help");
 		
 		AddMenuItem(file, "Quit", MenuCmd_Quit, 'Q');		
 		AddMenuItem(help, "About Circles and Spirals...", MenuCmd_About, 'A');
 		AddMenuItem(help, "Help...", MenuCmd_Help, 'H');
 		
-		AddMenuItem(curves, "Circle", MenuCmd_Circle);
-		AddMenuItem(curves, "Lissajous", MenuCmd_Lissajous);
-
-		AddMenuItem(spirals, "Archimedean Spiral", MenuCmd_Archimedean_Spiral);
-		AddMenuItem(spirals, "Fermat's Spiral", MenuCmd_Fermats_Spiral);
-		AddMenuItem(spirals, "Logarithmic Spiral", MenuCmd_Logarithmic_Spiral);
-		AddMenuItem(spirals, "Hyperbolic Spiral", MenuCmd_Hyperbolic_Spiral);
-		AddMenuItem(spirals, "Lituus", MenuCmd_Lituus);
-		AddMenuItem(spirals, "Double Lituus", MenuCmd_Double_Lituus);
-		AddMenuItem(spirals, "Anthony's Spiral", MenuCmd_Anthonys_Spiral);
-
-		AddMenuItem(trochoids, "Hypotrochoids", MenuCmd_Hypotrochoids);
-		AddMenuItem(trochoids, "Polytrochoids", MenuCmd_Polytrochoids);
-		AddMenuItem(trochoids, "Lissajous Trochoids", MenuCmd_Lissajous_Trochoids);
-
 		mbar.add(file);
 		mbar.add(edit);
-		mbar.add(curves);
-		mbar.add(spirals);
-		mbar.add(trochoids);
+		for (String menuname : CurveRegistry.getMenus()) {
+			JMenu menu = new JMenu(menuname);
+			for (CurveProvider curve : CurveRegistry.getCurves(menuname)) {
+				JMenuItem menuitem = new MyMenuItem(curve);
+				menuitem.addActionListener(menulistener);
+				menu.add(menuitem);
+			}
+			mbar.add(menu);
+		}
 		mbar.add(help);
 		
 		return mbar;
@@ -160,8 +146,6 @@ public class Main extends JFrame
 	
 	private void DoMenuItem(int menuCommand)
 	{
-		JFrame newwindow = null;
-		
 		switch (menuCommand) {
 			case MenuCmd_Quit:
 				break;
@@ -169,43 +153,13 @@ public class Main extends JFrame
 				break;
 			case MenuCmd_Help:
 				break;
-			case MenuCmd_Circle:
-				newwindow = new Circle();
-				break;
-			case MenuCmd_Lissajous:
-				newwindow = new LissajousCurve();
-				break;	
-			case MenuCmd_Archimedean_Spiral:
-				newwindow = new LinearSpiral();
-				break;
-			case MenuCmd_Fermats_Spiral:
-				newwindow = new ParabolicSpiral();
-				break;
-			case MenuCmd_Logarithmic_Spiral:
-				newwindow = new LogarithmicSpiral();
-				break;
-			case MenuCmd_Hyperbolic_Spiral:
-				newwindow = new HyperbolicSpiral();
-				break;
-			case MenuCmd_Lituus:
-				newwindow = new Lituus();
-				break;
-			case MenuCmd_Double_Lituus:
-				newwindow = new DoubleLituus();
-				break;
-			case MenuCmd_Anthonys_Spiral:
-				newwindow = new AnthonySpiral();
-				break;
-			case MenuCmd_Hypotrochoids:
-				newwindow = new HypotrochoidTest2();
-				break;
-			case MenuCmd_Polytrochoids:
-				newwindow = new PolytrochoidTest2();
-				break;
-			case MenuCmd_Lissajous_Trochoids:
-				newwindow = new LissajousTrochoid();
-				break;
 		}
+	}
+	
+	/* Open a new window showing the curve (loading its class if it is the first) */
+	private void OpenCurve(CurveProvider curve)
+	{
+		JFrame newwindow = curve.OpenWindow();
 		
 		if (newwindow != null) {
 			newwindow.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
@@ -13,6 +13,7 @@
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Insets;
 import javax.swing.JFrame;
 
 
@@ -24,12 +25,15 @@ public class ParabolicSpiral extends JFrame
 	protected double	centerx;
 	protected double	centery;
 	protected double	radius;
+	protected ZoomPan	view;						// mouse wheel zoom and drag pan (0 resets)
 	
 	public ParabolicSpiral()
 	{
 		super("Fermat's spiral");
 		setSize(WINWIDTH, WINHEIGHT);
 		setVisible(true);
+		view = new ZoomPan(this);
+		view.AddResetKey('0');
 	
 		// find the center of the window and a radius that will fit
 		centerx = WINWIDTH * 0.5;
@@ -49,22 +53,35 @@ public class ParabolicSpiral extends JFrame
 		final double scale = 400.0;
 		final double arcstart = 0.0;				// angle of beginning of spiral
 		final double arcend = radius*radius/scale;	// angle of end of spiral
-		final double angleincr = Math.PI/1200.0;	// increment at which to draw points
-		double	r, x, y;
+		Insets	area;
+		double	angleincr, r, x, y, zoom, cx, cy, rmin, rmax, tstart, tend;
 		
 		super.paint(g);
 		g.setColor( Color.blue );
 		
+		// only draw the angles whose radius may be in the window (both arms have the
+		// same radius), with the increment divided by the zoom to keep the points
+		// as close together on the screen
+		zoom = view.getZoom();
+		cx = centerx + view.getPanX();
+		cy = centery + view.getPanY();
+		area = SpiralClipper.VisibleArea(this);
+		rmin = SpiralClipper.MinVisibleRadius(cx, cy, area) / zoom;
+		rmax = SpiralClipper.MaxVisibleRadius(cx, cy, area) / zoom;
+		tstart = Math.max(arcstart, rmin*rmin/scale);
+		tend = Math.min(arcend, rmax*rmax/scale);
+		angleincr = Math.PI/1200.0 / zoom;			// increment at which to draw points
+		
 		// draw a parabolic spiral
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
+		for (double angle = tstart; angle <= tend; angle += angleincr) {
 			r = Math.sqrt(scale*angle);
 			// draw the positive arm
-			x = centerx + r * Math.cos(angle);
-			y = centery - r * Math.sin(angle);
+			x = cx + zoom * r * Math.cos(angle);
+			y = cy - zoom * r * Math.sin(angle);
 			drawPoint(g, x, y);
 			// draw the negative arm
-			x = centerx - r * Math.cos(angle);
-			y = centery + r * Math.sin(angle);
+			x = cx - zoom * r * Math.cos(angle);
+			y = cy + zoom * r * Math.sin(angle);
 			drawPoint(g, x, y);
 		}
 	}
@@ -0,0 +1,17 @@
+/*	ParametricCurve.java
+
+	Interface for curves that can calculate their point and derivative at any
+	value of their parameter (usually an angle).  This is what AdaptiveSampler
+	needs to space the points of the curve evenly.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public interface ParametricCurve
+{
+	/* Store the point at parameter t in result[0] and result[1] and the derivative
+	   of the point with respect to t in result[2] and result[3].  Coordinates
+	   are relative to the drawing origin with the y-axis pointing up. */
+	public void PointAt(double t, double[] result);
+}
@@ -0,0 +1,71 @@
+/*	PointBuffer.java
+
+	Minimal growable buffer of (x, y) coordinates for calculated curves.
+	The coordinate arrays are accessed directly by the classes that fill
+	and draw the buffer, so they may be longer than the number of points.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class PointBuffer
+{
+	protected double[]	x;
+	protected double[]	y;
+	protected int		size;						// number of valid points in x[] and y[]
+
+	public PointBuffer()
+	{
+		this(1024);
+	}
+
+	public PointBuffer(int capacity)
+	{
+		x = new double[capacity];
+		y = new double[capacity];
+		size = 0;
+	}
+
+	public int getSize()
+	{
+		return size;
+	}
+
+	public double[] getX()
+	{
+		return x;
+	}
+
+	public double[] getY()
+	{
+		return y;
+	}
+
+	/* Set the number of valid points, growing the arrays if necessary.
+	   The contents of the arrays are not preserved when they grow. */
+	public void SetSize(int newsize)
+	{
+		if (newsize > x.length) {
+			x = new double[newsize];
+			y = new double[newsize];
+		}
+		size = newsize;
+	}
+
+	public void Clear()
+	{
+		size = 0;
+	}
+
+	public void Add(double px, double py)
+	{
+		if (size == x.length) {
+			int capacity = Math.max(16, x.length * 2);
+			x = java.util.Arrays.copyOf(x, capacity);
+			y = java.util.Arrays.copyOf(y, capacity);
+		}
+		x[size] = px;
+		y[size] = py;
+		++size;
+	}
+}
@@ -0,0 +1,253 @@
+/*	PointExporter.java
+
+	Writes the raw points of a curve to a binary file for analysis with other
+	tools.  The file is written through memory-mapped windows of MAPSIZE bytes
+	so that even a curve of hundreds of millions of points is copied straight
+	into the page cache without any intermediate buffers.  Each window is
+	forced to the disk before the next one is mapped (and the last one when
+	the file is closed), so the bandwidth printed by Export() is that of the
+	disk rather than of copies into memory.
+
+	File format (all numbers little-endian):
+
+	offset	size	contents
+	0		4		magic number: the ASCII characters "CSPT"
+	4		2		format version (1)
+	6		2		bytes per coordinate: 4 (float32) or 8 (float64)
+	8		8		number of points (int64)
+	16		8		angle between consecutive points in radians (float64)
+	24		4		length n of the parameter text in bytes (int32)
+	28		n		the curve's parameters in UTF-8, in the format read by
+					CurveParms.Parse() (the line printed by PolytrochoidTest2)
+	...				zero padding up to a multiple of 16 bytes
+	data			x0, y0, x1, y1, ... for every point
+
+	Coordinates are in units of the largest circle's radius (or of the
+	Lissajous curve's amplitude), with the y-axis pointing up.  Point n is at
+	angle n * (angle between points), starting from angle 0.
+
+	java PointExporter [-float] [-density n] file revolutions radius1 radius2 ... [pen=p]
+
+	exports one curve (float64 unless -float is given, with the window's
+	default of at most 10000 points per revolution unless -density is given)
+	and prints the time and bandwidth.  Polytrochoids are calculated in
+	chunks by a CurveStreamer, so any length can be exported.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+
+public class PointExporter
+{
+	final public static int		VERSION = 1;
+	final public static int		HEADERSIZE = 28;			// bytes before the parameter text
+	final public static long	MAPSIZE = 64 << 20;			// bytes mapped at a time (a multiple of 16)
+
+	protected FileChannel	channel;
+	protected int			coordsize;					// bytes per coordinate (4 or 8)
+	protected long			numpoints;					// points the file will hold
+	protected long			dataoffset;					// file offset of the first point
+	protected long			written;					// points written so far
+	protected long			windowstart;				// file offset of the mapped window
+	protected MappedByteBuffer	window;
+	protected FloatBuffer	floats;						// views of the window as coordinates
+	protected DoubleBuffer	doubles;
+
+	/* Create file for numpoints points and write its header */
+	public PointExporter(File file, String parameters, long numpoints, double angleincr, boolean float32) throws IOException
+	{
+		byte[] text = parameters.getBytes(StandardCharsets.UTF_8);
+
+		this.numpoints = numpoints;
+		coordsize = float32 ? 4 : 8;
+		dataoffset = (HEADERSIZE + text.length + 15) & ~15L;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+								   StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+		ByteBuffer header = ByteBuffer.allocate((int)dataoffset).order(ByteOrder.LITTLE_ENDIAN);
+		header.put("CSPT".getBytes(StandardCharsets.US_ASCII));
+		header.putShort((short)VERSION);
+		header.putShort((short)coordsize);
+		header.putLong(numpoints);
+		header.putDouble(angleincr);
+		header.putInt(text.length);
+		header.put(text);
+		header.rewind();
+		while (header.hasRemaining())  channel.write(header, header.position());
+		windowstart = dataoffset;
+	}
+
+	/* Append the points to the file */
+	public void Write(PointBuffer points) throws IOException
+	{
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		int		 count = points.getSize();
+		int		 first = 0;
+
+		if (written + count > numpoints) {
+			throw new IOException("more than the " + numpoints + " points in the header");
+		}
+		while (first < count) {
+			// copy as many points as fit in the mapped window
+			long position = dataoffset + written * 2 * coordsize;
+			if (window == null || position >= windowstart + window.capacity())  MapWindow(position);
+			int index = (int)((position - windowstart) / coordsize);
+			int last = (int)Math.min(count, first + (windowstart + window.capacity() - position) / (2 * coordsize));
+			if (floats != null) {
+				for (int i = first; i < last; i++) {
+					floats.put(index++, (float)xs[i]);
+					floats.put(index++, (float)ys[i]);
+				}
+			}
+			else {
+				for (int i = first; i < last; i++) {
+					doubles.put(index++, xs[i]);
+					doubles.put(index++, ys[i]);
+				}
+			}
+			written += last - first;
+			first = last;
+		}
+	}
+
+	/* Map the window that starts at position (which is past the end of the last one),
+	   after writing the last window to the disk */
+	private void MapWindow(long position) throws IOException
+	{
+		long end = dataoffset + numpoints * 2 * coordsize;
+
+		if (window != null)  window.force();
+		windowstart = position;
+		window = channel.map(FileChannel.MapMode.READ_WRITE, position, Math.min(MAPSIZE, end - position));
+		window.order(ByteOrder.LITTLE_ENDIAN);
+		if (coordsize == 4) {
+			floats = window.asFloatBuffer();
+			doubles = null;
+		}
+		else {
+			doubles = window.asDoubleBuffer();
+			floats = null;
+		}
+	}
+
+	/* Write the rest of the file to the disk and close it
+	   (it is an error if fewer points were written than the header says) */
+	public void Close() throws IOException
+	{
+		if (window != null)  window.force();
+		channel.force(true);						// the header and the file's size
+		window = null;
+		floats = null;
+		doubles = null;
+		channel.close();
+		if (written != numpoints)  throw new IOException("only " + written + " of " + numpoints + " points were written");
+	}
+
+	public long getWritten()
+	{
+		return written;
+	}
+
+	/* Returns the size of the file in bytes */
+	public long getBytes()
+	{
+		return dataoffset + numpoints * 2 * coordsize;
+	}
+
+	/* Export the curve with pointdensity points per revolution to file and return a summary
+	   (or null if it couldn't be written, in which case the error is printed).  The write
+	   time includes forcing the points to the disk. */
+	public static String Export(File file, CurveParms parms, int pointdensity, boolean float32)
+	{
+		final double angleincr = 2.0 * Math.PI / pointdensity;
+		long		 calctime = 0, writetime = 0, start = System.nanoTime();
+		PointExporter exporter = null;
+
+		try {
+			if (parms.IsLissajous()) {
+				// (only polytrochoids can be streamed, so the points must fit in one buffer)
+				PointBuffer points = new PointBuffer();
+				parms.Calculate(1.0, pointdensity, points);
+				calctime = System.nanoTime() - start;
+				exporter = new PointExporter(file, parms.toString(), points.getSize(), angleincr, float32);
+				start = System.nanoTime();
+				exporter.Write(points);
+				writetime = System.nanoTime() - start;
+			}
+			else {
+				long numpoints = PolytrochoidEvaluator.LongPointCount(parms.getRevolutions(), pointdensity);
+				CurveStreamer stream = new CurveStreamer(parms.Evaluator(1.0), numpoints, angleincr);
+				exporter = new PointExporter(file, parms.toString(), numpoints, angleincr, float32);
+				while (true) {
+					start = System.nanoTime();
+					if (!stream.Next())  break;
+					calctime += System.nanoTime() - start;
+					start = System.nanoTime();
+					exporter.Write(stream.getChunk());
+					writetime += System.nanoTime() - start;
+				}
+			}
+			start = System.nanoTime();
+			exporter.Close();
+			writetime += System.nanoTime() - start;
+		}
+		catch (IOException e) {
+			System.err.println("Error in Export(): " + file + ": " + e.getMessage());
+			if (exporter != null) {
+				try {
+					exporter.channel.close();
+				}
+				catch (IOException e2) {}
+			}
+			return null;
+		}
+		return String.format("%s\t%d points\t%d bytes\tcalc %.1f ms\twrite %.1f ms (%.0f MB/s to disk)", file.getName(),
+							 exporter.getWritten(), exporter.getBytes(), calctime * 0.000001, writetime * 0.000001,
+							 exporter.getBytes() / 1048576.0 / Math.max(writetime * 0.000000001, 1e-9));
+	}
+
+	public static void main(String[] args)
+	{
+		boolean	float32 = false;
+		int		density = 0;
+		int		arg = 0;
+
+		try {
+			for (; arg < args.length && args[arg].startsWith("-"); arg++) {
+				if (args[arg].equals("-float"))  float32 = true;
+				else if (args[arg].equals("-density") && arg+1 < args.length)  density = Integer.parseInt(args[++arg]);
+				else  arg = args.length;
+			}
+		}
+		catch (NumberFormatException e) {
+			arg = args.length;
+		}
+		if (args.length - arg < 4) {
+			System.err.println("Usage: java PointExporter [-float] [-density n] file revolutions radius1 radius2 ... [pen=p]");
+			System.exit(1);
+		}
+
+		StringBuilder line = new StringBuilder();
+		for (int i = arg + 1; i < args.length; i++)  line.append(args[i]).append('\t');
+		CurveParms parms = CurveParms.Parse(line.toString());
+		if (parms == null)  System.exit(1);
+		if (density <= 0)  density = (int)Math.max(1, Math.min(CurveParms.MAXDENSITY, 100000 / parms.getRevolutions()));
+
+		String summary = Export(new File(args[arg]), parms, density, float32);
+		if (summary == null)  System.exit(1);
+		System.out.println(summary);
+	}
+}
@@ -0,0 +1,328 @@
+/*	PolytrochoidEvaluator.java
+
+	Calculates the points of a polytrochoid curve into a PointBuffer.
+
+	Each point is calculated from its index (angle = index * angleincr) instead of
+	by adding angleincr to the previous angle, so any range of indices can be
+	calculated independently of the others.  This allows long curves to be split
+	into chunks that are evaluated in parallel with the fork/join framework.
+
+	Coordinates are relative to the center of the outer circle with the y-axis
+	pointing up, as in the paint() methods of the polytrochoid classes.
+	
+	PointAt() also calculates the derivative of the curve for AdaptiveSampler.
+
+	The strided methods calculate only every stride'th point, optionally skipping
+	the points already calculated with a coarser stride, so that a curve can be
+	drawn progressively (every 64th point, then every 16th, ...) without
+	calculating any point twice.
+
+	The pen terms methods split each point into the sum of every wheel except
+	the last one, A(angle), and the direction of the pen, B(angle), so that
+	point = A + penlength * B.  See PolytrochoidPenTerms.
+
+	VisibleRanges() finds the ranges of indices that may be inside a rectangle
+	(e.g. the part of a zoomed curve that is in the window) without calculating
+	the other points.  A range of angles of half-width h around angle a stays
+	within sum(|radiidiffs[i]| * min(2, |rate[i]| * h)) of the point at a, where
+	rate[i] is how fast wheel i turns relative to the main angle, so a range
+	whose disk misses the rectangle is skipped and any other range is split in
+	half until it is MINRANGE points long.  EvaluateSlice() then calculates
+	each visible range into a small buffer.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+public class PolytrochoidEvaluator implements ParametricCurve
+{
+	final public static int	CHUNKSIZE = 8192;		// max number of points calculated by one task
+	final public static int	MINRANGE = 256;			// shortest range of indices tested by VisibleRanges()
+
+	protected int		numcircles;					// number of circles in use
+	protected double[]	radiidiffs;					// the difference btw radii of this & the next circle
+	protected double[]	angleratios;				// the ratio btw radii of consecutive circles (outer/inner)
+
+	public PolytrochoidEvaluator(int circles, double[] radiidiffs, double[] angleratios)
+	{
+		// copy the parameters so that the caller may change its own arrays
+		// while we are still calculating on another thread
+		numcircles = circles;
+		this.radiidiffs = Arrays.copyOf(radiidiffs, circles);
+		this.angleratios = Arrays.copyOf(angleratios, circles);
+	}
+
+	/* Returns the number of points from angle 0 to revolutions*2π (inclusive) */
+	public static int PointCount(double revolutions, int pointdensity)
+	{
+		return (int)(revolutions * pointdensity) + 1;
+	}
+
+	/* Same for curves that may have more points than an int can count */
+	public static long LongPointCount(double revolutions, int pointdensity)
+	{
+		return (long)(revolutions * pointdensity) + 1;
+	}
+
+	/* Calculate the points with indices first to last-1 */
+	public void EvaluateRange(PointBuffer points, int first, int last, double angleincr)
+	{
+		EvaluateRange(points, first, last, 1, 0, angleincr);
+	}
+
+	/* Calculate the points with indices first, first+stride, ... < last except for
+	   multiples of skipstride (first must be a multiple of stride; skipstride 0 skips none) */
+	public void EvaluateRange(PointBuffer points, int first, int last, int stride, int skipstride, double angleincr)
+	{
+		EvaluateRange(points, first, last, stride, skipstride, 0, angleincr);
+	}
+
+	/* Calculate the points with indices first to last-1 into points[0] to points[last-first-1] */
+	public void EvaluateSlice(PointBuffer points, int first, int last, double angleincr)
+	{
+		EvaluateSlice(points, (long)first, last - first, angleincr);
+	}
+
+	/* Calculate count points starting at index first (which may be beyond the range of an int,
+	   e.g. for a curve that is streamed in chunks) into points[0] to points[count-1] */
+	public void EvaluateSlice(PointBuffer points, long first, int count, double angleincr)
+	{
+		points.SetSize(count);
+		EvaluateRange(points, first, first + count, 1, 0, first, angleincr);
+	}
+
+	/* Strided calculation that stores the point with index n at points[n-offset] */
+	private void EvaluateRange(PointBuffer points, long first, long last, int stride, int skipstride, long offset, double angleincr)
+	{
+		double[] xs = points.x;
+		double[] ys = points.y;
+		double	 x, y, angle, innerangle, lastangle;
+
+		for (long n = first; n < last; n += stride) {
+			if (skipstride > 0 && n % skipstride == 0)  continue;
+			angle = n * angleincr;
+			// calculate coordinates of first inner circle center relative to the origin
+			x = radiidiffs[0] * Math.cos(angle);
+			y = radiidiffs[0] * Math.sin(angle);
+			lastangle = angle;
+			for (int i = 1; i < numcircles; i++) {
+				// calculate the angle to the next circle center (or the pen) relative to a horizontal line
+				innerangle = lastangle - (lastangle * angleratios[i]);
+				// calculate coordinates of next circle center (or the pen) by finding the offsets from last center
+				x += radiidiffs[i] * Math.cos(innerangle);
+				y += radiidiffs[i] * Math.sin(innerangle);
+				lastangle = innerangle;
+			}
+			xs[(int)(n - offset)] = x;
+			ys[(int)(n - offset)] = y;
+		}
+	}
+
+	/* Calculate the pen-independent terms of the points with indices first to last-1:
+	   base gets the center of the innermost circle and pen gets the unit vector
+	   from it towards the pen (the pen's distance is the last radiidiffs[]) */
+	public void EvaluateTermsRange(PointBuffer base, PointBuffer pen, int first, int last, double angleincr)
+	{
+		double[] xs = base.x;
+		double[] ys = base.y;
+		double[] pxs = pen.x;
+		double[] pys = pen.y;
+		double	 x, y, angle, innerangle, lastangle;
+		int		 lastcircle = numcircles - 1;
+
+		for (int n = first; n < last; n++) {
+			angle = n * angleincr;
+			x = radiidiffs[0] * Math.cos(angle);
+			y = radiidiffs[0] * Math.sin(angle);
+			lastangle = angle;
+			for (int i = 1; i < lastcircle; i++) {
+				innerangle = lastangle - (lastangle * angleratios[i]);
+				x += radiidiffs[i] * Math.cos(innerangle);
+				y += radiidiffs[i] * Math.sin(innerangle);
+				lastangle = innerangle;
+			}
+			xs[n] = x;
+			ys[n] = y;
+			innerangle = lastangle - (lastangle * angleratios[lastcircle]);
+			pxs[n] = Math.cos(innerangle);
+			pys[n] = Math.sin(innerangle);
+		}
+	}
+
+	/* Calculate the point at the given angle and its derivative with respect to the angle */
+	public void PointAt(double angle, double[] result)
+	{
+		double	x, y, dx, dy, innerangle, lastangle, rate;
+
+		// calculate coordinates of first inner circle center relative to the origin
+		x = radiidiffs[0] * Math.cos(angle);
+		y = radiidiffs[0] * Math.sin(angle);
+		dx = -y;
+		dy = x;
+		lastangle = angle;
+		rate = 1.0;									// rate of change of innerangle w.r.t. angle
+		for (int i = 1; i < numcircles; i++) {
+			innerangle = lastangle - (lastangle * angleratios[i]);
+			rate = rate - (rate * angleratios[i]);
+			double cx = radiidiffs[i] * Math.cos(innerangle);
+			double cy = radiidiffs[i] * Math.sin(innerangle);
+			x += cx;
+			y += cy;
+			dx -= rate * cy;
+			dy += rate * cx;
+			lastangle = innerangle;
+		}
+		result[0] = x;
+		result[1] = y;
+		result[2] = dx;
+		result[3] = dy;
+	}
+
+	/* Returns the ranges of the indices 0 to numpoints-1 whose points may be inside the
+	   rectangle xmin..xmax, ymin..ymax as pairs {first, last, first, last, ...} (each
+	   range excludes its last index).  The other points are certainly outside it. */
+	public int[] VisibleRanges(int numpoints, double angleincr, double xmin, double ymin, double xmax, double ymax)
+	{
+		RangeFinder finder = new RangeFinder(angleincr, xmin, ymin, xmax, ymax);
+
+		if (numpoints > 0)  finder.Find(0, numpoints);
+		return Arrays.copyOf(finder.ranges, finder.count);
+	}
+
+	/** Subdivides ranges of indices for VisibleRanges(), merging adjacent visible ranges */
+	private class RangeFinder
+	{
+		private double		angleincr, xmin, ymin, xmax, ymax;
+		private double[]	rates = new double[numcircles];	// turning rate of each wheel
+		private double[]	point = new double[4];
+		private int[]		ranges = new int[64];
+		private int			count;
+
+		public RangeFinder(double angleincr, double xmin, double ymin, double xmax, double ymax)
+		{
+			this.angleincr = angleincr;
+			this.xmin = xmin;
+			this.ymin = ymin;
+			this.xmax = xmax;
+			this.ymax = ymax;
+			rates[0] = 1.0;
+			for (int i = 1; i < numcircles; i++)  rates[i] = rates[i-1] - (rates[i-1] * angleratios[i]);
+		}
+
+		public void Find(int first, int last)
+		{
+			double halfwidth = (last - 1 - first) * 0.5 * angleincr;
+			double bound = 0.0;
+
+			// the disk around the middle point that contains the whole range
+			PointAt((first + last - 1) * 0.5 * angleincr, point);
+			for (int i = 0; i < numcircles; i++) {
+				bound += Math.abs(radiidiffs[i]) * Math.min(2.0, Math.abs(rates[i]) * halfwidth);
+			}
+			if (point[0] + bound < xmin || point[0] - bound > xmax ||
+				point[1] + bound < ymin || point[1] - bound > ymax)  return;
+
+			if (last - first <= MINRANGE)  Add(first, last);
+			else {
+				int middle = (first + last) >>> 1;
+				Find(first, middle);
+				Find(middle, last);
+			}
+		}
+
+		private void Add(int first, int last)
+		{
+			if (count > 0 && ranges[count-1] == first) {
+				ranges[count-1] = last;
+				return;
+			}
+			if (count == ranges.length)  ranges = Arrays.copyOf(ranges, count * 2);
+			ranges[count++] = first;
+			ranges[count++] = last;
+		}
+	}
+
+	/* Calculate numpoints points on the calling thread */
+	public void Evaluate(PointBuffer points, int numpoints, double angleincr)
+	{
+		points.SetSize(numpoints);
+		EvaluateRange(points, 0, numpoints, angleincr);
+	}
+
+	/* Calculate numpoints points using all available processors */
+	public void EvaluateParallel(PointBuffer points, int numpoints, double angleincr)
+	{
+		points.SetSize(numpoints);
+		EvaluateParallel(points, 0, numpoints, angleincr);
+	}
+
+	/* Calculate the points with indices first to last-1 using all available processors
+	   (points must already be large enough) */
+	public void EvaluateParallel(PointBuffer points, int first, int last, double angleincr)
+	{
+		EvaluateParallel(points, first, last, 1, 0, angleincr);
+	}
+
+	/* Strided version of EvaluateParallel() (see EvaluateRange()) */
+	public void EvaluateParallel(PointBuffer points, int first, int last, int stride, int skipstride, double angleincr)
+	{
+		ForkJoinPool.commonPool().invoke(new EvaluateTask(points, first, last, stride, skipstride, angleincr));
+	}
+
+	/* Calculate the pen-independent terms (see EvaluateTermsRange()) using all available processors */
+	public void EvaluateTermsParallel(PointBuffer base, PointBuffer pen, int first, int last, double angleincr)
+	{
+		ForkJoinPool.commonPool().invoke(new EvaluateTask(base, pen, first, last, angleincr));
+	}
+
+	/** Fork/join task that splits its range of indices in half until
+	 *  the range is small enough to calculate directly.
+	 */
+	@SuppressWarnings("serial")
+	private class EvaluateTask extends RecursiveAction
+	{
+		private PointBuffer	points;
+		private PointBuffer	pen;					// non-null to calculate the pen terms
+		private int			first, last, stride, skipstride;
+		private double		angleincr;
+
+		public EvaluateTask(PointBuffer base, PointBuffer pen, int first, int last, double angleincr)
+		{
+			this(base, first, last, 1, 0, angleincr);
+			this.pen = pen;
+		}
+
+		public EvaluateTask(PointBuffer points, int first, int last, int stride, int skipstride, double angleincr)
+		{
+			this.points = points;
+			this.first = first;
+			this.last = last;
+			this.stride = stride;
+			this.skipstride = skipstride;
+			this.angleincr = angleincr;
+		}
+
+		protected void compute()
+		{
+			int count = (last - first + stride - 1) / stride;	// number of indices in the range
+			
+			if (count <= CHUNKSIZE) {
+				if (pen != null)  EvaluateTermsRange(points, pen, first, last, angleincr);
+				else  EvaluateRange(points, first, last, stride, skipstride, angleincr);
+			}
+			else {
+				// split at a multiple of stride
+				int middle = first + (count >>> 1) * stride;
+				EvaluateTask lower = new EvaluateTask(points, first, middle, stride, skipstride, angleincr);
+				EvaluateTask upper = new EvaluateTask(points, middle, last, stride, skipstride, angleincr);
+				lower.pen = upper.pen = pen;
+				invokeAll(lower, upper);
+			}
+		}
+	}
+}
@@ -0,0 +1,280 @@
+/*	PolytrochoidGallery.java
+
+	Shows a scrolling grid of polytrochoid thumbnails so that many parameter
+	sets can be compared at once.  Clicking a thumbnail opens that curve in
+	a PolytrochoidTest2 window.
+
+	The thumbnails are either random curves (chosen like RandomizeParms() in
+	PolytrochoidTest2, but from a seed so the same index always gets the same
+	curve) or a sweep of the second and third radii (row and column) inside
+	an outer circle of radius SWEEPOUTER.  R shows a new set of random curves
+	and S switches between random curves and the sweep.
+
+	Only the visible thumbnails are rendered, on a fixed pool of threads with
+	at most THUMBPOINTS points per curve.  Thumbnails that scroll out of view
+	before they are started are cancelled.  Finished thumbnails are kept in
+	an LRU cache so that scrolling back to them is instant.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.swing.*;
+
+
+public class PolytrochoidGallery extends JFrame implements KeyListener
+{
+	final private int	WINWIDTH = 1000;
+	final private int	WINHEIGHT = 800;
+	final private int	THUMBSIZE = 160;			// width and height of each thumbnail in pixels
+	final private int	COLUMNS = 6;				// thumbnails per row
+	final private int	ROWS = 40;					// rows of thumbnails (also the number of swept radii)
+	final private int	THUMBPOINTS = 20000;		// max number of points calculated for a thumbnail
+	final private int	MAXTHUMBNAILS = 1000;		// max number of thumbnails cached (about 100 KB each)
+	final private int	SWEEPOUTER = 40;			// outer radius of the swept curves
+	final private int	MAXRADIUS = 40;				// largest random radius
+	final private int	MAXREVOLUTIONS = 100;		// slowest random curve
+
+	final private String HELP_MESSAGE = "Click a curve to open it, R for new random curves, S to sweep the radii";
+
+	protected GalleryPanel	panel;
+	protected boolean	sweep = false;				// show the radii sweep instead of random curves?
+	protected long		seed;						// seed of the current set of random curves
+	protected ExecutorService	pool;				// renders the thumbnails
+
+	// thumbnails that are finished, in order from least to most recently used
+	private LinkedHashMap<String, BufferedImage>	thumbnails =
+		new LinkedHashMap<String, BufferedImage>(16, 0.75f, true) {
+			protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+				return size() > MAXTHUMBNAILS;
+			}
+		};
+	private HashMap<String, Future<?>>	pending = new HashMap<String, Future<?>>();	// thumbnails being rendered
+
+	public PolytrochoidGallery()
+	{
+		super("Polytrochoid Gallery");
+		pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		seed = System.nanoTime();
+
+		panel = new GalleryPanel();
+		JScrollPane scroller = new JScrollPane(panel);
+		scroller.getVerticalScrollBar().setUnitIncrement(THUMBSIZE / 4);
+		getContentPane().add(scroller, BorderLayout.CENTER);
+		JLabel help = new JLabel(HELP_MESSAGE);
+		getContentPane().add(help, BorderLayout.SOUTH);
+
+		setSize(WINWIDTH, WINHEIGHT);
+		setVisible(true);
+		addKeyListener(this);
+		panel.addKeyListener(this);
+		panel.setFocusable(true);
+		panel.requestFocusInWindow();
+		addWindowListener(new WindowAdapter() {
+		    public void windowClosed(WindowEvent e) {
+		        pool.shutdownNow();
+		    }
+		});
+	}
+
+	/* Returns the parameters of thumbnail index (or null if the curve is too long to calculate) */
+	protected CurveParms getParms(int index)
+	{
+		int[]	radii;
+		long	revs;
+
+		if (sweep) {
+			radii = new int[] {SWEEPOUTER, index / COLUMNS + 1, index % COLUMNS + 1};
+			revs = new PolytrochoidPeriod(radii.length, radii).getRevolutions();
+			if (revs <= 0)  return null;
+			return new CurveParms((double)revs, radii, 1.0);
+		}
+
+		// the same choices as RandomizeParms() in PolytrochoidTest2
+		Random random = new Random(seed + index);
+		radii = new int[3];
+		do {
+			for (int i = 0; i < radii.length; i++)  radii[i] = 1 + random.nextInt(MAXRADIUS);
+			revs = new PolytrochoidPeriod(radii.length, radii).getRevolutions();
+		}
+		while (radii[0] == radii[1] || radii[1] == radii[2] || revs > MAXREVOLUTIONS || revs == 0);
+		return new CurveParms((double)revs, radii, (3 + random.nextInt(38)) * 0.05);
+	}
+
+	/* Returns the finished thumbnail for parms or starts rendering it and returns null */
+	protected BufferedImage getThumbnail(CurveParms parms)
+	{
+		final String key = parms.toString();
+		final CurveParms p = parms;
+		BufferedImage image;
+
+		synchronized (thumbnails) {
+			image = thumbnails.get(key);
+			if (image != null || pending.containsKey(key))  return image;
+			// (the task can't finish until we have added it to pending)
+			pending.put(key, pool.submit(new Runnable() {
+				public void run() {
+					BufferedImage thumb = RenderThumbnail(p);
+					synchronized (thumbnails) {
+						thumbnails.put(key, thumb);
+						pending.remove(key);
+					}
+					panel.repaint();
+				}
+			}));
+		}
+		return null;
+	}
+
+	/* Cancel the thumbnails that haven't been started unless their keys are in visible */
+	protected void CancelHidden(Set<String> visible)
+	{
+		synchronized (thumbnails) {
+			Iterator<Map.Entry<String, Future<?>>> it = pending.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<String, Future<?>> entry = it.next();
+				if (!visible.contains(entry.getKey()) && entry.getValue().cancel(false))  it.remove();
+			}
+		}
+	}
+
+	/* Calculate and draw a thumbnail, scaled to fill it */
+	protected BufferedImage RenderThumbnail(CurveParms parms)
+	{
+		PointBuffer points = new PointBuffer();
+		BufferedImage image = new BufferedImage(THUMBSIZE, THUMBSIZE, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+
+		parms.Calculate(1.0, parms.PointDensity(THUMBPOINTS), points);
+		double scale = (THUMBSIZE * 0.5 - CurveParms.MARGINSIZE) / Math.max(CurveParms.Extent(points), Double.MIN_VALUE);
+		g.setColor(Color.white);
+		g.fillRect(0, 0, THUMBSIZE, THUMBSIZE);
+		g.setColor(Color.blue);
+		CurveParms.Draw(g, points, THUMBSIZE * 0.5, THUMBSIZE * 0.5, scale);
+		g.dispose();
+		return image;
+	}
+
+	/* Cancel the thumbnails that haven't been started and show the current set of curves */
+	protected void Reset()
+	{
+		synchronized (thumbnails) {
+			for (Future<?> task : pending.values())  task.cancel(false);
+			pending.clear();
+		}
+		panel.repaint();
+	}
+
+	/** Draws the visible thumbnails (starting the ones that aren't finished)
+	 *  and opens a curve when it is clicked.
+	 */
+	private class GalleryPanel extends JPanel
+	{
+		public GalleryPanel()
+		{
+			setPreferredSize(new Dimension(COLUMNS * THUMBSIZE, ROWS * THUMBSIZE));
+			setBackground(Color.lightGray);
+			addMouseListener(new MouseAdapter() {
+				public void mouseClicked(MouseEvent e) {
+					int column = e.getX() / THUMBSIZE;
+					int row = e.getY() / THUMBSIZE;
+					if (column >= COLUMNS || row >= ROWS)  return;
+					CurveParms parms = getParms(row * COLUMNS + column);
+					if (parms != null) {
+						new PolytrochoidTest2(parms).setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+					}
+				}
+			});
+		}
+
+		protected void paintComponent(Graphics g)
+		{
+			super.paintComponent(g);
+
+			// Every thumbnail in the visible rectangle is started (or kept), but only the ones
+			// in the clip are drawn.  (The clip can be just the strip that a scroll exposed,
+			// so it can't be used to decide which thumbnails to cancel.)
+			Rectangle view = getVisibleRect();
+			Rectangle clip = g.getClipBounds();
+			if (clip == null)  clip = view;
+			int firstrow = Math.max(view.y / THUMBSIZE, 0);
+			int lastrow = Math.min((view.y + view.height - 1) / THUMBSIZE, ROWS - 1);
+			int firstcolumn = Math.max(view.x / THUMBSIZE, 0);
+			int lastcolumn = Math.min((view.x + view.width - 1) / THUMBSIZE, COLUMNS - 1);
+			Set<String> visible = new HashSet<String>();
+			FontMetrics fm = g.getFontMetrics();
+
+			for (int row = firstrow; row <= lastrow; row++) {
+				for (int column = firstcolumn; column <= lastcolumn; column++) {
+					int x = column * THUMBSIZE;
+					int y = row * THUMBSIZE;
+					boolean exposed = clip.intersects(x, y, THUMBSIZE, THUMBSIZE);
+					CurveParms parms = getParms(row * COLUMNS + column);
+					String label;
+					if (parms == null)  label = "too long";
+					else {
+						BufferedImage thumb = getThumbnail(parms);
+						visible.add(parms.toString());
+						if (thumb != null && exposed)  g.drawImage(thumb, x, y, null);
+						int[] radii = parms.getRadii();
+						label = radii[0] + "/" + radii[1] + "/" + radii[2] + String.format(" pen %.2f", parms.getPenRatio());
+					}
+					if (!exposed)  continue;
+					g.setColor(Color.gray);
+					g.drawRect(x, y, THUMBSIZE - 1, THUMBSIZE - 1);
+					g.setColor(Color.black);
+					g.drawString(label, x + 4, y + THUMBSIZE - fm.getDescent() - 2);
+				}
+			}
+			if (!visible.isEmpty())  CancelHidden(visible);
+		}
+	}
+
+	/* These 3 methods are the implementation of the KeyListener interface.
+	   keyTyped() responds to keyboard events as described in the header.
+	 */
+	public void keyPressed(KeyEvent event)
+	{
+	}
+
+	public void keyReleased(KeyEvent event)
+	{
+	}
+
+	public void keyTyped(KeyEvent event)
+	{
+		char	key = event.getKeyChar();
+
+		if	(key == 'r' || key == 'R') {
+			// 'r' and 'R' show a new set of random curves
+			sweep = false;
+			seed = System.nanoTime();
+			Reset();
+		}
+		else if	(key == 's' || key == 'S') {
+			// 's' and 'S' switch between the random curves and the sweep
+			sweep = !sweep;
+			Reset();
+		}
+	}
+
+	public static void main(String[] args)
+	{
+		PolytrochoidGallery app = new PolytrochoidGallery();
+		app.setDefaultCloseOperation( JFrame.DISPOSE_ON_CLOSE );
+	}
+}
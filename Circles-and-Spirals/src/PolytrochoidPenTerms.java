@@ -0,0 +1,72 @@
+/*	PolytrochoidPenTerms.java
+
+	Keeps the parts of a polytrochoid's points that do not depend on the pen
+	position so that the pen can be moved without recalculating the curve.
+
+	Only the last term of a polytrochoid depends on the pen's distance from the
+	center of the innermost circle:
+
+	point(angle) = A(angle) + penlength * B(angle)
+
+	where A is the center of the innermost circle and B is the unit vector
+	pointing towards the pen.  Once A and B have been calculated (with
+	PolytrochoidEvaluator.EvaluateTermsRange() or EvaluateTermsParallel()),
+	Compose() finds the points for any pen length with one multiply and one
+	add per coordinate and no trig functions.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class PolytrochoidPenTerms
+{
+	protected String		key;					// parameters of the curve, excluding the pen position
+	protected PointBuffer	base;					// A(angle): center of the innermost circle
+	protected PointBuffer	pen;					// B(angle): unit vector towards the pen
+
+	public PolytrochoidPenTerms(String key, int numpoints)
+	{
+		this.key = key;
+		base = new PointBuffer(numpoints);
+		pen = new PointBuffer(numpoints);
+		base.SetSize(numpoints);
+		pen.SetSize(numpoints);
+	}
+
+	public String getKey()
+	{
+		return key;
+	}
+
+	public PointBuffer getBase()
+	{
+		return base;
+	}
+
+	public PointBuffer getPen()
+	{
+		return pen;
+	}
+
+	/* Returns the number of points */
+	public int getSize()
+	{
+		return base.getSize();
+	}
+
+	/* Calculate the points of the curve for the given pen length into result */
+	public void Compose(double penlength, PointBuffer result)
+	{
+		int		 count = base.getSize();
+		double[] ax = base.x, ay = base.y;
+		double[] bx = pen.x, by = pen.y;
+
+		result.SetSize(count);
+		double[] xs = result.x;
+		double[] ys = result.y;
+		for (int i = 0; i < count; i++) {
+			xs[i] = ax[i] + penlength * bx[i];
+			ys[i] = ay[i] + penlength * by[i];
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*	PolytrochoidPeriod.java
+
+	Exact rational arithmetic for the rotation rates of the wheels of a polytrochoid.
+
+	The pen position is a sum of one rotating vector per circle, where vector i
+	turns f[i] times for each revolution of the main angle:
+
+	f[0] = 1  and  f[i] = f[i-1] * (radii[i] - radii[i-1]) / radii[i]
+
+	Each f[i] is kept as a reduced fraction of longs.  The curve closes when
+	every vector has made a whole number of turns, so the number of revolutions
+	in one period is the LCM of the denominators of the f[i] (ignoring vectors
+	with no length, i.e. where two consecutive radii are equal).  This is correct
+	for any number of wheels.
+
+	All products are checked for overflow; if any value does not fit in a long
+	the period is reported as 0.
+
+	java PolytrochoidPeriod [count [seed]]
+
+	checks getRevolutions() against the curve itself for count random sets of
+	radii (default 10000) and some sets with equal radii and overflow: the
+	curve must come back to where it started after getRevolutions() revolutions
+	and must not after getRevolutions()/p revolutions for any prime factor p.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+
+public class PolytrochoidPeriod
+{
+	final public static long	MAXCHECKED = 1000000;		// longest period main() checks numerically
+	protected int		numterms;					// number of rotating vectors (= number of circles)
+	protected long[]	numerators;					// numerator of f[i] (may be negative or 0)
+	protected long[]	denominators;				// denominator of f[i] (always positive)
+	protected long		revolutions;				// revolutions in one period (0 if too large)
+
+	public PolytrochoidPeriod(int circles, int[] radii)
+	{
+		long	num = 1, den = 1, g1, g2, a, b;
+		boolean	overflow = false;
+
+		numterms = circles;
+		numerators = new long[circles];
+		denominators = new long[circles];
+		try {
+			for (int i = 0; i < circles; i++) {
+				if (i > 0) {
+					// multiply f[i-1] by (radii[i] - radii[i-1]) / radii[i],
+					// cancelling common factors first to keep the values small
+					a = radii[i] - radii[i-1];
+					b = radii[i];
+					if (a == 0 || num == 0) {
+						num = 0;
+						den = 1;
+					}
+					else {
+						// reduce the new factor, then cancel across the two fractions
+						g1 = GCD(Math.abs(a), b);
+						a /= g1;
+						b /= g1;
+						g1 = GCD(Math.abs(num), b);
+						g2 = GCD(Math.abs(a), den);
+						num = Math.multiplyExact(num / g1, a / g2);
+						den = Math.multiplyExact(den / g2, b / g1);
+					}
+				}
+				numerators[i] = num;
+				denominators[i] = den;
+			}
+		}
+		catch (ArithmeticException e) {
+			overflow = true;
+		}
+
+		// find the LCM of the denominators of all vectors with a non-zero length
+		// (the last vector is the pen, whose length does not depend on the radii)
+		revolutions = 1;
+		if (overflow)  revolutions = 0;
+		else {
+			try {
+				for (int i = 0; i < circles; i++) {
+					if (i < circles-1 && radii[i] == radii[i+1])  continue;
+					revolutions = LCM(revolutions, denominators[i]);
+				}
+			}
+			catch (ArithmeticException e) {
+				revolutions = 0;
+			}
+		}
+	}
+
+	/* Returns the number of revolutions in one period, or 0 if it doesn't fit in a long */
+	public long getRevolutions()
+	{
+		return revolutions;
+	}
+
+	public long getNumerator(int i)
+	{
+		return numerators[i];
+	}
+
+	public long getDenominator(int i)
+	{
+		return denominators[i];
+	}
+
+	/* Returns the number of turns vector i makes in the given number of revolutions.
+	   Throws ArithmeticException if that is not a whole number or doesn't fit in a long. */
+	public long Turns(int i, long revs)
+	{
+		long scaled = Math.multiplyExact(numerators[i], revs);
+		if (scaled % denominators[i] != 0)
+			throw new ArithmeticException("vector " + i + " does not make a whole number of turns");
+		return scaled / denominators[i];
+	}
+
+	public static long GCD(long a, long b)
+	{
+		while (b != 0) {
+			long t = a % b;
+			a = b;
+			b = t;
+		}
+		return a;
+	}
+
+	/* Least common multiple of two positive numbers (throws ArithmeticException on overflow) */
+	public static long LCM(long a, long b)
+	{
+		return Math.multiplyExact(a / GCD(a, b), b);
+	}
+
+	/* Returns the largest distance between the points at angles t and t + 2π*revs for a few t
+	   (0 and random ones), with the largest circle of radius 1 and the pen on the innermost circle */
+	private static double ClosureError(int[] radii, double revs, Random random)
+	{
+		PolytrochoidEvaluator evaluator = new CurveParms(1.0, radii, 1.0).Evaluator(1.0);
+		double[] start = new double[4], end = new double[4];
+		double	 error = 0.0;
+
+		for (int sample = 0; sample < 4; sample++) {
+			double t = (sample == 0) ? 0.0 : 2.0 * Math.PI * random.nextDouble();
+			evaluator.PointAt(t, start);
+			evaluator.PointAt(t + 2.0 * Math.PI * revs, end);
+			error = Math.max(error, Math.hypot(end[0] - start[0], end[1] - start[1]));
+		}
+		return error;
+	}
+
+	/* Returns the distance two points of the curve may differ by from rounding alone
+	   after revs revolutions (the angles' rounding error times the speed of each vector) */
+	private static double Tolerance(PolytrochoidPeriod period, int[] radii, long revs)
+	{
+		double maxradius = 0.0, speed = 0.0;
+
+		for (int r : radii)  maxradius = Math.max(maxradius, r);
+		for (int i = 0; i < period.numterms; i++) {
+			double length = (i < period.numterms-1) ? Math.abs(radii[i] - radii[i+1]) : radii[i];
+			double rate = Math.abs((double)period.numerators[i] / period.denominators[i]);
+			speed += length / maxradius * Math.max(rate, 1.0);
+		}
+		return 1e-9 + 64.0 * Math.ulp(2.0 * Math.PI * revs) * speed * period.numterms;
+	}
+
+	/* Check one set of radii and return an error message (or null if it is correct) */
+	private static String Check(int[] radii, Random random)
+	{
+		PolytrochoidPeriod period = new PolytrochoidPeriod(radii.length, radii);
+		long	revs = period.getRevolutions();
+
+		if (revs <= 0)  return "period 0 without overflow";
+		if (revs > MAXCHECKED)  return null;
+
+		double tolerance = Tolerance(period, radii, revs);
+		double error = ClosureError(radii, revs, random);
+		if (error > tolerance)  return "doesn't close after " + revs + " revolutions (error " + error + ")";
+		long rest = revs;
+		for (long p = 2; rest > 1; p++) {
+			if (p * p > rest)  p = rest;
+			if (rest % p != 0)  continue;
+			while (rest % p == 0)  rest /= p;
+			error = ClosureError(radii, revs / p, random);
+			if (error <= 1000.0 * tolerance)  return "already closes after " + (revs / p) + " revolutions (error " + error + ")";
+		}
+		return null;
+	}
+
+	public static void main(String[] args)
+	{
+		int		count = (args.length > 0) ? Integer.parseInt(args[0]) : 10000;
+		Random	random = (args.length > 1) ? new Random(Long.parseLong(args[1])) : new Random();
+		int		failed = 0, checked = 0, toolong = 0;
+		long	maxrevs = 0;
+
+		// random radii (with equal neighbors, i.e. vectors of no length, now and then)
+		for (int n = 0; n < count; n++) {
+			int[] radii = new int[2 + random.nextInt(5)];
+			for (int i = 0; i < radii.length; i++) {
+				if (i > 0 && random.nextInt(8) == 0)  radii[i] = radii[i-1];
+				else  radii[i] = 1 + random.nextInt(60);
+			}
+			String error = Check(radii, random);
+			long revs = new PolytrochoidPeriod(radii.length, radii).getRevolutions();
+			if (revs > MAXCHECKED)  ++toolong;
+			else {
+				++checked;
+				maxrevs = Math.max(maxrevs, revs);
+			}
+			if (error != null) {
+				System.out.println("FAILED " + Arrays.toString(radii) + ": " + error);
+				++failed;
+			}
+		}
+
+		// sets whose periods were worked out by hand (with vectors of no length and an overflow)
+		int[][]	known = {{5, 3}, {48, 17}, {7, 7}, {43, 24, 8, 2}, {10, 10, 4}, {9, 3, 3, 1}, {12, 12, 12},
+						 {1000003, 999983, 999979, 999961, 999959, 999953, 999931, 999917}};
+		long[]	expected = {3, 17, 1, 24, 1, 1, 1, 0};
+		for (int k = 0; k < known.length; k++) {
+			PolytrochoidPeriod period = new PolytrochoidPeriod(known[k].length, known[k]);
+			String error = null;
+			if (period.getRevolutions() != expected[k])
+				error = "period " + period.getRevolutions() + " instead of " + expected[k];
+			else if (expected[k] > 0)  error = Check(known[k], random);
+			if (error != null) {
+				System.out.println("FAILED " + Arrays.toString(known[k]) + ": " + error);
+				++failed;
+			}
+		}
+
+		System.out.println(String.format("%d random sets (%d checked numerically, longest period %d; %d longer than %d " +
+										 "skipped), %d known sets: %d failed",
+										 count, checked, maxrevs, toolong, MAXCHECKED, known.length, failed));
+		if (failed > 0)  System.exit(1);
+	}
+}
@@ -0,0 +1,138 @@
+/*	PolytrochoidSpectrum.java
+
+	Calculates the points of a closed polytrochoid curve with one inverse FFT.
+
+	The position of the pen is a sum of one rotating vector per circle:
+
+	z(θ) = Σ radiidiffs[i] * e^(j * f[i] * θ)
+
+	where f[0] = 1 and f[i] = f[i-1] * (radii[i] - radii[i-1]) / radii[i]
+	(see PolytrochoidPeriod).  When the curve is drawn for a whole number of
+	periods, every f[i] * revolutions is an integer k[i], so N evenly spaced
+	samples of the curve are exactly the inverse DFT of a spectrum with radiidiffs[i] added to bin (k[i] mod N).
+	The cost is O(N log N) no matter how many circles there are.
+
+	If some f[i] * revolutions is not an integer (i.e. the curve is not closed
+	after that many revolutions) or the exact frequencies do not fit in a long,
+	IsClosed() returns false and the curve must be calculated directly instead.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class PolytrochoidSpectrum
+{
+	final public static int	MAXFFTSIZE = 1 << 30;
+
+	protected int		numterms;					// number of rotating vectors (= number of circles)
+	protected long[]	frequencies;				// number of turns each vector makes during the curve
+	protected double[]	amplitudes;					// length of each vector
+	protected boolean	closed;						// true if all frequencies are integers
+
+	public PolytrochoidSpectrum(int circles, int[] radii, double[] radiidiffs, long revolutions)
+	{
+		PolytrochoidPeriod period = new PolytrochoidPeriod(circles, radii);
+
+		numterms = circles;
+		frequencies = new long[circles];
+		amplitudes = new double[circles];
+		closed = true;
+		try {
+			for (int i = 0; i < circles; i++) {
+				amplitudes[i] = radiidiffs[i];
+				// vectors with no length don't affect whether the curve is closed
+				if (radiidiffs[i] != 0.0)  frequencies[i] = period.Turns(i, revolutions);
+			}
+		}
+		catch (ArithmeticException e) {
+			closed = false;
+		}
+	}
+
+	public boolean IsClosed()
+	{
+		return closed;
+	}
+
+	/* Returns the number of samples the FFT will use to calculate at least minpoints points */
+	public static int FFTSize(int minpoints)
+	{
+		int n = 1;
+		while (n < minpoints && n < MAXFFTSIZE)  n <<= 1;
+		return n;
+	}
+
+	/* Calculate at least minpoints evenly spaced points covering the whole curve
+	   (plus a final point equal to the first one).  Returns false if the curve
+	   is not closed and no points were calculated. */
+	public boolean Evaluate(PointBuffer points, int minpoints)
+	{
+		if (!closed)  return false;
+
+		int n = FFTSize(minpoints);
+		points.SetSize(n + 1);
+		double[] re = points.x;
+		double[] im = points.y;
+
+		// build the spectrum in the point arrays and transform it in place
+		java.util.Arrays.fill(re, 0, n, 0.0);
+		java.util.Arrays.fill(im, 0, n, 0.0);
+		for (int i = 0; i < numterms; i++) {
+			int bin = (int)(((frequencies[i] % n) + n) % n);
+			re[bin] += amplitudes[i];
+		}
+		InverseFFT(re, im, n);
+
+		// close the curve
+		re[n] = re[0];
+		im[n] = im[0];
+		return true;
+	}
+
+	/* In-place iterative radix-2 inverse FFT (without the 1/n scaling).
+	   n must be a power of 2. */
+	public static void InverseFFT(double[] re, double[] im, int n)
+	{
+		double	tr, ti, wr, wi;
+
+		// reorder the input by bit-reversed indices
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1)  j ^= bit;
+			j ^= bit;
+			if (i < j) {
+				tr = re[i];  re[i] = re[j];  re[j] = tr;
+				ti = im[i];  im[i] = im[j];  im[j] = ti;
+			}
+		}
+
+		// table of twiddle factors e^(+j*2πk/n) for k < n/2
+		int half = n >> 1;
+		double[] cos = new double[Math.max(half, 1)];
+		double[] sin = new double[Math.max(half, 1)];
+		for (int k = 0; k < half; k++) {
+			cos[k] = Math.cos(2.0 * Math.PI * k / n);
+			sin[k] = Math.sin(2.0 * Math.PI * k / n);
+		}
+
+		// butterflies
+		for (int len = 2; len <= n; len <<= 1) {
+			int halflen = len >> 1;
+			int step = n / len;
+			for (int start = 0; start < n; start += len) {
+				for (int k = 0; k < halflen; k++) {
+					int p = start + k;
+					int q = p + halflen;
+					wr = cos[k * step];
+					wi = sin[k * step];
+					tr = re[q] * wr - im[q] * wi;
+					ti = re[q] * wi + im[q] * wr;
+					re[q] = re[p] - tr;
+					im[q] = im[p] - ti;
+					re[p] += tr;
+					im[p] += ti;
+				}
+			}
+		}
+	}
+}
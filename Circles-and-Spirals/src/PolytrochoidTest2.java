@@ -3,9 +3,38 @@
 	Draws what I am calling a "polytrochoid" curve, which is similar to a hypotrochoid but 
 	has more than two wheels nested and rotating within each other.
 	
-	This test allows up to ten wheels with random parameters.  It often does not draw 
+	This test allows many wheels with random parameters.  It often does not draw 
 	to complete a closed curve however (which is sometimes nice, but often not).
 	
+	Closed curves are calculated with an inverse FFT (see PolytrochoidSpectrum) 
+	whose cost does not depend on the number of wheels, so up to MAXCIRCLES wheels 
+	may be added with the arrow keys.  F toggles this back to direct calculation.
+	
+	Curves are drawn progressively (every 64th point, then every 16th, 4th and
+	finally all of them) so that a rough version of a large curve appears right
+	away.  G toggles this off.
+	
+	Dragging the mouse left or right moves the pen.  Only the last term of each
+	point depends on the pen, so the rest is calculated once and kept in a
+	PolytrochoidPenTerms while the pen moves.  The points for each position
+	of the pen are composed into the same buffer and only the position where
+	the mouse is released is kept in the cache.
+	
+	The mouse wheel zooms in and out and dragging with Shift (or the right
+	button) pans; 0 goes back to the whole curve.  A zoomed curve is calculated
+	with its point density multiplied by the zoom, but only for the ranges of
+	angles that PolytrochoidEvaluator.VisibleRanges() can't rule out of the
+	window, so a deep zoom costs about as much as the part that is visible.
+	
+	Curves with more than STREAMPOINTS points (or every curve after T is
+	pressed) are streamed: calculated in chunks that are drawn and discarded
+	by a CurveStreamer, stopping early once the picture stops changing, so
+	that memory use doesn't depend on the length of the curve.
+	
+	H toggles drawing the points as anti-aliased shading of how often the
+	curve crosses each pixel (see DensityRenderer) instead of plotting them.
+	V writes the curve as it is shown to SVG and PDF files.
+	
 	Anthony Kozar
 	October 28, 2014
 	
@@ -14,15 +43,16 @@
 import java.awt.*;
 import java.awt.event.*;
 import java.util.Arrays;
+import java.util.BitSet;
 
 import javax.swing.*;
 
 
-public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListener
+public class PolytrochoidTest2 extends JFrame implements MouseListener, MouseMotionListener, KeyListener
 {
 	final private int	WINWIDTH = 1600;
 	final private int	WINHEIGHT = 1000;
-	final public int	MAXCIRCLES = 10;
+	final public int	MAXCIRCLES = 200;
 	final public int	POINTSPERSEC = 100000;
 	final public int	MAXDENSITY = 10000;
 
@@ -34,8 +64,8 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	// final private int[]	 initradii = {43, 24, 8, 2};
 	// final private double initpenpos = 0.0;
 	
-	final private String HELP_MESSAGE = "Click to randomize or use the arrow keys,<,>,[,],-,+ to adjust the parameters, " +
-            "A/Q to toggle auto-set, R to redraw, ! to exit";
+	final private String HELP_MESSAGE = "Click to randomize, drag to move the pen, or use the arrow keys,<,>,[,],-,+ to adjust the parameters, " +
+            "A/Q to toggle auto-set, R to redraw, wheel to zoom, shift-drag to pan, 0 to unzoom, V to export, ! to exit";
 
 	final private int	MARGINSIZE = 5;
 	protected Insets	drawingArea;				// visible area of window minus margins (right & bottom are coords not insets)
@@ -59,12 +89,51 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	protected double	penlength;					// distance from the center of inner circle to the "pen"
 	protected double	revolutions;				// num of revolutions main angle needs to complete the figure
 	protected int		pointdensity;				// how many points to draw per revolution
+	protected CurveRenderWorker	renderer = new CurveRenderWorker(this);	// draws the curve in the background
+	protected CurveCache	cache = new CurveCache(CurveCache.DEFAULTBUDGET);	// points of recently drawn curves
+	protected PolytrochoidPenTerms	penterms;		// pen-independent terms of the last curve whose pen moved (used by renderer only)
+	protected PointBuffer	penpoints;				// points composed from penterms while the pen moves (used by renderer only)
+	protected CurveScorer	scorer;					// pool of interesting random curves for RandomizeParms()
+	protected ZoomPan	view;						// zoom and pan of the curve
+	final private double	DRAGSCALE = 0.005;		// change in pen position per pixel dragged
+	private int			dragx;						// where the mouse was pressed
+	private double		dragpenratio;				// penratio when the mouse was pressed
+	private boolean		pendragged;					// has the pen moved since the mouse was pressed?
+	protected PointBuffer	simplified;				// points kept for drawing the curve as a polyline
+	protected boolean	usespectrum = true;			// calculate closed curves with an inverse FFT?
+	protected boolean	adaptivesampling = false;	// space points by arc length instead of pointdensity?
+	protected boolean	progressive = true;			// draw coarse passes of the curve first?
+	protected boolean	streaming = false;			// stream every curve instead of keeping its points?
+	protected boolean	drawdensity = false;		// draw anti-aliased density shading instead of points?
+	protected DensityRenderer	densitybuffer;		// accumulation buffer of the last density drawing (used by renderer only)
+	final private long	STREAMPOINTS = 16777216;	// longer curves are always streamed
+	final private int	MINDENSITY = 360;			// fewest points per revolution chosen by SetDensity()
+	final private int	MINPOINTSPERTURN = 8;		// fewest points per turn of the fastest wheel chosen by SetDensity()
+	final private long	PUBLISHDELAY = 250000000;	// nanoseconds between partial images of a streamed curve
+	final private int[]	PASSSTRIDES = {64, 16, 4, 1};	// distance between the points drawn in each progressive pass
 
+	// duplicate point modes (selected with the S key)
+	final private int	DRAW_DUPLICATES = 0;		// plot every point
+	final private int	SKIP_CONSECUTIVE = 1;		// skip a point in the same pixel as the last point
+	final private int	SKIP_VISITED = 2;			// skip every point in a pixel that was already plotted
+	
+	final private int	SLICESIZE = 65536;			// number of points calculated between checks for cancellation
+	final private int	RESIZEDELAY = 100;			// milliseconds without resize events before redrawing
+	protected javax.swing.Timer	resizetimer;		// redraws the curve once the window stops changing size
+	
 	// point diagnostics
-	private int			lastx, lasty, totalpoints, duplicatepoints;
-	private boolean		showdiagnostics = false, skipduplicates = true;
+	private boolean		showdiagnostics = false;
+	private int			duplicatemode = SKIP_CONSECUTIVE;
+	private boolean		drawpolyline = false;		// draw a simplified polyline instead of points?
+	private BitSet		visited;					// pixels already plotted by the current render (row-major)
 	
 	public PolytrochoidTest2()
+	{
+		this(null);
+	}
+	
+	/* Open the window with the given curve (or the initial one if parms is null) */
+	public PolytrochoidTest2(CurveParms parms)
 	{
 		super("Polytrochoid Test 2");
 		// setSize(WINWIDTH, WINHEIGHT);
@@ -73,12 +142,30 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		setLocation(usableSpace.getLocation());
 		setVisible(true);
 		addMouseListener(this);
+		addMouseMotionListener(this);
 		addKeyListener(this);
+		view = new ZoomPan(this, true, new Runnable() {
+			public void run() {
+				RequestRender();
+			}
+		});
 		addComponentListener(new ComponentAdapter() {
 		    public void componentResized(ComponentEvent e) {
 		        WindowResized();
 		    }
 		});
+		addWindowListener(new WindowAdapter() {
+		    public void windowClosed(WindowEvent e) {
+		        resizetimer.stop();
+		        renderer.Shutdown();
+		    }
+		});
+		resizetimer = new javax.swing.Timer(RESIZEDELAY, new ActionListener() {
+			public void actionPerformed(ActionEvent e) {
+				RequestRender();
+			}
+		});
+		resizetimer.setRepeats(false);
 		
 		// allocate space for the circle parameters
 		iradii = new int[MAXCIRCLES];
@@ -87,6 +174,7 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		angleratios = new double[MAXCIRCLES];
 		radiiratios = new double[MAXCIRCLES];
 		radiidiffs = new double[MAXCIRCLES];
+		simplified = new PointBuffer();
 		
 		// initialize all parameters
 		for (int i = 0; i < MAXCIRCLES; i++)  iradii[i] = 1;
@@ -94,8 +182,21 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		autoSetDensity = true;
 		SetOrigin();
 		SetScale();
-		SetDrawingParms(initcircles, initradii, initpenpos);
+		if (parms != null) {
+			int[] radii = parms.getRadii();
+			SetDrawingParms(radii.length, radii, parms.getPenRatio());
+			if (parms.getRevolutions() != revolutions) {
+				autoSetRevolutions = false;
+				revolutions = parms.getRevolutions();
+				if (autoSetDensity)  SetDensity();
+			}
+		}
+		else  SetDrawingParms(initcircles, initradii, initpenpos);
 		selectedParm = P_NUM_CIRCLES;
+		RequestRender();
+		
+		// score random curves in the background so that the first click is fast
+		PrimeScorer();
 	}
 	
 	private Rectangle GetAvailableWindowSpace()
@@ -131,6 +232,17 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		
 		pointdensity = (int)(POINTSPERSEC/revolutions);
 		if (pointdensity > MAXDENSITY)  pointdensity = MAXDENSITY;
+		
+		// Long curves still need enough points per revolution to follow their fastest wheel
+		// (fewer would strobe it into a different picture); they are streamed and stop
+		// once the picture saturates, so the extra points don't all have to be drawn.
+		double rate = 1.0, fastest = 1.0;
+		for (int i = 1; i < numcircles; i++) {
+			rate -= rate * angleratios[i];				// turns of wheel i per revolution (see PolytrochoidEvaluator)
+			fastest = Math.max(fastest, Math.abs(rate));
+		}
+		int mindensity = (int)Math.min(MAXDENSITY, Math.max(MINDENSITY, Math.ceil(MINPOINTSPERTURN * fastest)));
+		if (pointdensity < mindensity)  pointdensity = mindensity;
 	}
 	
 	private void SetDrawingParms(int circles, int[] radii, double penposition)
@@ -178,64 +290,35 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 			radiidiffs[i] = pixradii[i] - pixradii[i+1];
 		}
 		
-		if (autoSetRevolutions)  revolutions = (double)CalculateRevolutions(numcircles, iradii);
+		if (autoSetRevolutions) {
+			long revs = CalculateRevolutions(numcircles, iradii);
+			if (revs > 0)  revolutions = (double)revs;
+			else  System.err.println("Error in SetDrawingParms(): the period of the curve is too large to calculate");
+		}
 		if (autoSetDensity)  SetDensity();
 		SetPenLength(penposition);
 	}
 	
-	/* Calculate the number of revolutions needed to produce a closed curve */
-	private int CalculateRevolutions(int circles, int[] origradii)
+	/* Calculate the number of revolutions needed to produce a closed curve
+	   (returns 0 if the exact number is too large for a long) */
+	private long CalculateRevolutions(int circles, int[] radii)
 	{
-		int gcd, revs, result;
-		int[] radii;
+		long result;
 		
 		// validate arguments
 		if (circles < 2) {
 			System.err.println("Error in CalculateRevolutions(): circles cannot be less than 2 (was " + circles + ")");
 			return 0;
 		}
-		if (origradii.length < circles) {
+		if (radii.length < circles) {
 			System.err.println("Error in CalculateRevolutions(): fewer than " + circles + 
-					           " values in origradii[] (has " + origradii.length + ")");
+					           " values in radii[] (has " + radii.length + ")");
 			return 0;			
 		}
 		
-		// reduce all radii by any common factors
-		radii = (int[]) origradii.clone();
-		gcd = GCD(radii[0], radii[1]);
-		for (int i = 2; i < circles; i++) {
-			gcd = GCD(gcd, radii[i]);
-		}
-		if (gcd > 1) {
-			for (int i = 0; i < circles; i++) {
-				radii[i] /= gcd;
-			}
-		}
-		// System.out.println(Arrays.toString(origradii) + "  GCD(radii[]) = " + gcd + "  " + Arrays.toString(radii));
-		
-		// FIXME: this algorithm is currently only correct for 2-3 wheels (?)
-		// the 2-wheel solution is just radii[1] reduced by any common factors 
-		// that it shares with GCD(radii[0], radii[1]) which is already done
-		// if circles == 2
-		if (circles == 2) result = radii[1];
-		else {
-			// check for degenerate cases
-			if (radii[0] == radii[1])  result = 1;			// just a single point
-			else if (radii[1] == radii[2])  result = 1;		// a circle
-			else {
-				// start with what would be the num revs if only 2 wheels
-				gcd = GCD(radii[0], radii[1]);
-				result = radii[1] / gcd;
-				// reduce radii[2] by any common factors that it shares with radii[1]
-				gcd = GCD(radii[1], radii[2]);
-				revs = radii[2] / gcd;
-				// reduce radii[2] further by any common factors that it shares with radii[1]-radii[0]
-				gcd = GCD(Math.abs(radii[1]-radii[0]), revs);
-				revs = revs / gcd;
-				// multiply 2-wheel result by the 3rd wheel factor
-				result *= revs;
-			}
-		}
+		// the curve closes when every wheel has made a whole number of turns,
+		// i.e. after LCM(denominators of each wheel's reduced rotation rate) revolutions
+		result = new PolytrochoidPeriod(circles, radii).getRevolutions();
 		
 		return result;
 	}
@@ -247,28 +330,64 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		penlength = radiidiffs[numcircles-1] = pixradii[numcircles-1] * penratio;
 	}
 	
+	/* Replace the scorer if the number of circles has changed and start filling its pool
+	   in the background (so that Next() rarely finds it empty) */
+	private void PrimeScorer()
+	{
+		if (scorer == null || scorer.getCircles() != numcircles) {
+			scorer = new CurveScorer(numcircles);
+			scorer.RefillLater();
+		}
+	}
+	
 	private void RandomizeParms()
 	{
-		int circles;
-		int[] radii;
-		double penpos;
-		boolean tryagain = false;
+		// pick one of the best curves from a pool of scored random curves
+		// (instead of rerolling the radii until the curve is short enough)
+		PrimeScorer();
+		CurveScorer.Candidate best = scorer.Next();
+		SetDrawingParms(best.radii.length, best.radii, best.penratio);
+	}
+	
+	/* Write the curve as it is shown in the window to SVG and PDF files (see VectorExporter).
+	   When zoomed, this is what RenderVisible() draws: the points at the zoomed density
+	   in the ranges that may be in the window, each range as a separate subpath. */
+	private void ExportVector()
+	{
+		CurveParms	parms = new CurveParms(revolutions, Arrays.copyOf(iradii, numcircles), penratio);
+		PointBuffer	points = new PointBuffer();
+		double		cx = centerx + view.getPanX();
+		double		cy = centery + view.getPanY();
+		double		scale = drawingradius * view.getZoom();
+		int[]		ranges = null;
 		
-		circles = numcircles; //RandomOn(3, 4); // MAXCIRCLES);
-		radii = new int[circles];
-		do {
-			for (int i = 0; i < circles; i++) {
-				radii[i] = RandomOn(1, 40);
+		if (view.IsZoomed()) {
+			PolytrochoidEvaluator evaluator = parms.Evaluator(1.0);
+			PointBuffer	slice = new PointBuffer(SLICESIZE);
+			long	density = (long)Math.ceil(pointdensity * view.getZoom());
+			
+			density = Math.max(1, Math.min(density, (long)((Integer.MAX_VALUE - 1) / revolutions)));
+			final double angleincr = 2.0 * Math.PI/density;
+			final int numpoints = PolytrochoidEvaluator.PointCount(revolutions, (int)density);
+			int[] visible = evaluator.VisibleRanges(numpoints, angleincr,
+													-(cx + 1.0) / scale, (cy - getHeight() - 1.0) / scale,
+													(getWidth() + 1.0 - cx) / scale, (cy + 1.0) / scale);
+			// copy the ranges' points one after another and note where each range now is
+			ranges = new int[visible.length];
+			for (int r = 0; r < visible.length; r += 2) {
+				ranges[r] = points.getSize();
+				for (int first = visible[r]; first < visible[r+1]; first += SLICESIZE) {
+					int last = Math.min(first + SLICESIZE, visible[r+1]);
+					evaluator.EvaluateSlice(slice, first, last, angleincr);
+					for (int i = 0; i < last - first; i++)  points.Add(slice.x[i], slice.y[i]);
+				}
+				ranges[r+1] = points.getSize();
 			}
-			// Try to avoid certain uninteresting or slow combinations:
-			if (radii[0] == radii[1] || (circles > 2 && radii[1] == radii[2]) || CalculateRevolutions(circles, radii) > 100)
-				  tryagain = true;
-			else  tryagain = false;
 		}
-		while(tryagain);
-		
-		penpos = RandomOn(3, 40) * 0.05;
-		SetDrawingParms(circles, radii, penpos);
+		else parms.Calculate(1.0, Math.min(pointdensity, parms.PointDensity(CurveParms.MAXPOINTS)), points);
+		VectorExporter.WriteFiles("polytrochoid-" + System.currentTimeMillis(), getWidth(), getHeight(),
+								  new PointBuffer[] {points}, new int[][] {ranges}, new Color[] {Color.blue},
+								  cx, cy, scale);
 	}
 	
 	private void IncrSelectedParm()
@@ -283,6 +402,7 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 			++iradii[selectedParm];
 		}
 		SetDrawingParms(numcircles, iradii, penratio);
+		PrimeScorer();
 	}
 	
 	private void DecrSelectedParm()
@@ -298,6 +418,7 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 				--iradii[selectedParm];
 		}
 		SetDrawingParms(numcircles, iradii, penratio);
+		PrimeScorer();
 	}
 	
 	/*	Euclidean algorithm for finding the greatest common divisor.
@@ -327,71 +448,58 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 				                 this.getWidth()  - (visibleArea.right  + MARGINSIZE));
 	}
 
-	private void resetDiagnostics()
+	private void drawDiagnostics(Graphics g, CurveJob job)
 	{
-		totalpoints = duplicatepoints = 0;
-		lastx = lasty = -1;
-	}
-	
-	private void drawDiagnostics(Graphics g, long nscalctime, long nsdrawtime, int numpoints, int numduplicates)
-	{
-		String	calctimestr, drawtimestr, pointstr, dupstr, ptssecstr;
-		double	calctime, drawtime;
+		String[] lines = new String[10];
+		double	serialtime, calctime, drawtime;
 		
-		calctime = nscalctime * 0.000000001;				// convert from nanoseconds to seconds
-		drawtime = nsdrawtime * 0.000000001;
-		calctimestr = String.format("Calc time: %.3f", calctime);
-		drawtimestr = String.format("Draw time: %.3f", drawtime);
-		pointstr = "Points: " + numpoints;
-		dupstr = "Duplicates: " + numduplicates;
-		ptssecstr = String.format("Points/sec: %.3f", (numpoints-numduplicates)/drawtime);
+		serialtime = job.serialtime * 0.000000001;			// convert from nanoseconds to seconds
+		calctime = job.calctime * 0.000000001;
+		drawtime = job.drawingtime * 0.000000001;
+		lines[0] = String.format("Calc time: %.3f", serialtime);
+		lines[1] = String.format("%s calc: %.3f (%.1fx)", job.engine, calctime, (double)job.serialtime / Math.max(job.calctime, 1));
+		lines[2] = String.format("Draw time: %.3f", drawtime);
+		lines[3] = "Points: " + job.totalpoints;
+		if (job.drawpolyline) {
+			lines[4] = "Polyline vertices: " + job.vertices;
+			lines[5] = String.format("(max error %.2f pixels)", CurveSimplifier.TOLERANCE);
+			lines[6] = "";
+			lines[7] = String.format("Vertices/sec: %.3f", job.vertices/drawtime);
+		}
+		else {
+			lines[4] = "Duplicates: " + job.duplicatepoints;
+			lines[5] = "Unique pixels: " + job.uniquepixels;
+			if (!job.IsComplete() && job.passstride > 1)  lines[6] = "(drawing every " + job.passstride + "th point)";
+			else if (job.streamed)  lines[6] = "(all revisits skipped)";
+			else if (job.drawdensity)  lines[6] = "(anti-aliased density)";
+			else if (job.duplicatemode == SKIP_CONSECUTIVE)  lines[6] = "(consecutive skipped)";
+			else if (job.duplicatemode == SKIP_VISITED)  lines[6] = "(all revisits skipped)";
+			else  lines[6] = "(none skipped)";
+			lines[7] = String.format("Points/sec: %.3f", (job.totalpoints-job.duplicatepoints)/drawtime);
+		}
+		lines[8] = String.format("Cache: %d hits, %d misses (%.1f MB)", cache.getHits(), cache.getMisses(),
+								 cache.getBytesUsed() / 1048576.0);
+		if (job.zoomed)  lines[9] = String.format("Zoom %.1fx: %d of %d points", job.zoom, job.totalpoints, job.curvepoints);
+		else if (job.streamed)  lines[9] = String.format("Streamed %d of %d points%s", job.streamedpoints,
+													   job.curvepoints, job.saturated ? " (saturated)" : "");
+		else  lines[9] = "Zoom 1x";
 		
 		// measure string widths to determine how much space is needed
 		FontMetrics  fm = g.getFontMetrics();
 		int lineht = fm.getHeight();
 		int x = 100, width;
 		
-		width = fm.stringWidth(calctimestr);
-		if (width > x)  x = width;
-		width = fm.stringWidth(drawtimestr);
-		if (width > x)  x = width;
-		width = fm.stringWidth(pointstr);
-		if (width > x)  x = width;
-		width = fm.stringWidth(dupstr);
-		if (width > x)  x = width;
-		width = fm.stringWidth(ptssecstr);
-		if (width > x)  x = width;
+		for (int i = 0; i < lines.length; i++) {
+			width = fm.stringWidth(lines[i]);
+			if (width > x)  x = width;
+		}
 		
 		// draw diagnostic strings in the upper right corner
 		setMargins();
 		x = drawingArea.right - x;
 		g.setColor(Color.black);
-		g.drawString(calctimestr,  x, drawingArea.top + lineht);
-		g.drawString(drawtimestr,  x, drawingArea.top + 2*lineht);
-		g.drawString(pointstr,     x, drawingArea.top + 3*lineht);
-		g.drawString(dupstr,       x, drawingArea.top + 4*lineht);
-		if (skipduplicates)  g.drawString("(skipped)", x, drawingArea.top + 5*lineht);
-		g.drawString(ptssecstr,    x, drawingArea.top + 6*lineht);
-	}
-	
-	protected void drawPoint(Graphics g, double x, double y)
-	{
-		int ix = (int)Math.round(x);
-		int iy = (int)Math.round(y);
-		
-		++totalpoints;
-		if (ix == lastx && iy == lasty)	{
-			++duplicatepoints;
-			if (!skipduplicates) {
-				// we have to use drawLine() to draw a single point
-				g.drawLine(ix, iy, ix, iy);				
-			}
-		}
-		else {
-			// we have to use drawLine() to draw a single point
-			g.drawLine(ix, iy, ix, iy);
-			lastx = ix;
-			lasty = iy;
+		for (int i = 0; i < lines.length; i++) {
+			g.drawString(lines[i], x, drawingArea.top + (i+1)*lineht);
 		}
 	}
 	
@@ -425,8 +533,11 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		parmsMessage2 = workstr + "  Pen position: " + String.format("%.2f", penratio) + 
 						" <>  Revolutions: " + (int)revolutions + " [ ]";
 		parmsMessage2 = parmsMessage2 + " (auto-set " + (autoSetRevolutions ? "on": "off") + " (A))";
-		parmsMessage2 = parmsMessage2 + "  Point density: " + pointdensity + " -/+";
-		parmsMessage2 = parmsMessage2 + " (auto-set " + (autoSetDensity ? "on": "off") + " (Q))";
+		if (adaptivesampling)  parmsMessage2 = parmsMessage2 + "  Point density: adaptive (E)";
+		else {
+			parmsMessage2 = parmsMessage2 + "  Point density: " + pointdensity + " -/+";
+			parmsMessage2 = parmsMessage2 + " (auto-set " + (autoSetDensity ? "on": "off") + " (Q))";
+		}
 		
 		// draw strings with parameter values, highlighting the selected parameter
 		FontMetrics  fm = g.getFontMetrics();
@@ -450,11 +561,6 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	
 	public void paint(Graphics g)
 	{
-		final double arcstart = 0.0;							// angle of beginning of arc
-		final double arcend = revolutions * 2.0 * Math.PI;		// angle of end of arc
-		final double angleincr = 2.0 * Math.PI/pointdensity;	// increment at which to draw points
-		double	x, y, innerangle, lastangle;
-
 		super.paint(g);
 		// System.out.println("paint() called");
 		
@@ -462,38 +568,422 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		g.setColor(Color.white);
 		g.fillRect(0, 0, this.getWidth(), this.getHeight());
 
+		// copy the last curve finished by the renderer (it may be a little
+		// out of date while a new one is being drawn)
+		CurveJob job = (CurveJob)renderer.getFinished();
+		if (job != null)  g.drawImage(job.getImage(), 0, 0, null);
+		
 		drawWindowText(g);
-		g.setColor(Color.blue);
-		resetDiagnostics();
-		int pass = (showdiagnostics ? 0 : 1);
-		long drawingtime = 0, calctime = 0;
-		do {
-		long start = System.nanoTime();		   
-		// calculate coordinates parametrically based on the total angle of rotation
-		for (double angle = arcstart; angle <= arcend; angle += angleincr) {
-			// calculate coordinates of first inner circle center relative to the origin
-			x = radiidiffs[0] * Math.cos(angle);
-			y = radiidiffs[0] * Math.sin(angle);
-			lastangle = angle;
-			for (int i = 1; i < numcircles; i++) {
-				// calculate the angle to the next circle center (or the pen) relative to a horizontal line
-				innerangle = lastangle - (lastangle * angleratios[i]);
-				// calculate coordinates of next circle center (or the pen) by finding the offsets from last center
-				x += radiidiffs[i] * Math.cos(innerangle);
-				y += radiidiffs[i] * Math.sin(innerangle);				
-				lastangle = innerangle;
+		if (showdiagnostics && job != null)  drawDiagnostics(g, job);
+	}
+
+	/* Ask the renderer to draw the curve with the current parameters and repaint */
+	private void RequestRender()
+	{
+		RequestRender(false);
+	}
+	
+	/* penmoved should be true if only the pen position has changed since the last request */
+	private void RequestRender(boolean penmoved)
+	{
+		RequestRender(penmoved, false);
+	}
+	
+	/* keeppen should be true if the pen has stopped moving, so that its points are worth caching */
+	private void RequestRender(boolean penmoved, boolean keeppen)
+	{
+		if (radiidiffs == null)  return;		// the constructor hasn't allocated the parameters yet
+		renderer.Request(new CurveJob(penmoved, keeppen));
+		this.repaint();
+	}
+	
+	/** Draws the curve on the renderer's thread.  The constructor copies
+	 *  all of the parameters that it needs so that the window's parameters
+	 *  can keep changing while it works.  The diagnostics are also kept here.
+	 *
+	 *  The points are calculated for a drawing radius of 1 (so that the cached
+	 *  points and pen terms can be reused when the window is resized) and are
+	 *  scaled by the window's drawing radius when they are drawn.
+	 */
+	private class CurveJob extends CurveRenderWorker.RenderJob
+	{
+		// copies of the window's parameters
+		private PolytrochoidEvaluator	evaluator;
+		private int			numcircles;
+		private int[]		iradii;
+		private double[]	radiidiffs;
+		private double		revolutions, centerx, centery;
+		private double		scale;					// drawing radius times zoom (pixels per unit of the calculated points)
+		private double		zoom;
+		private boolean		zoomed;					// calculate only the visible parts of the curve?
+		private int			pointdensity, duplicatemode;
+		private boolean		usespectrum, adaptivesampling, progressive, streaming, drawpolyline, drawdensity, showdiagnostics;
+		private boolean		penmoved;				// recompose the points from the pen terms?
+		private boolean		keeppen;				// cache the recomposed points?
+		private String		termskey;				// parameters of the curve excluding the pen position
+		private String		key;					// key of the curve's points in the cache
+		private String		penkey;					// key of the points if they were composed from the pen terms
+		private PointBuffer	points;					// calculated (or cached) points of the curve
+		
+		// point diagnostics
+		private String		engine = "Parallel";
+		private long		serialtime, calctime, drawingtime;
+		private int			lastx, lasty, totalpoints, duplicatepoints, uniquepixels, vertices;
+		private int			passstride = 1;			// stride of the last progressive pass drawn
+		private long		curvepoints;			// points in the whole zoomed or streamed curve
+		private long		streamedpoints;			// points calculated before the streamed picture saturated
+		private boolean		streamed, saturated;
+		
+		public CurveJob(boolean penmoved, boolean keeppen)
+		{
+			super(PolytrochoidTest2.this.getWidth(), PolytrochoidTest2.this.getHeight());
+			PolytrochoidTest2 w = PolytrochoidTest2.this;
+			numcircles = w.numcircles;
+			iradii = Arrays.copyOf(w.iradii, w.numcircles);
+			scale = w.drawingradius;
+			radiidiffs = new double[numcircles];
+			for (int i = 0; i < numcircles; i++)  radiidiffs[i] = w.radiidiffs[i] / scale;
+			evaluator = new PolytrochoidEvaluator(numcircles, radiidiffs, w.angleratios);
+			revolutions = w.revolutions;
+			pointdensity = w.pointdensity;
+			zoom = w.view.getZoom();
+			zoomed = w.view.IsZoomed();
+			scale *= zoom;
+			centerx = w.centerx + w.view.getPanX();
+			centery = w.centery + w.view.getPanY();
+			duplicatemode = w.duplicatemode;
+			usespectrum = w.usespectrum;
+			adaptivesampling = w.adaptivesampling;
+			progressive = w.progressive;
+			streaming = w.streaming;
+			drawpolyline = w.drawpolyline;
+			drawdensity = w.drawdensity;
+			showdiagnostics = w.showdiagnostics;
+			this.penmoved = penmoved && !adaptivesampling && !zoomed;	// adaptive samples depend on the pen
+			this.keeppen = keeppen;
+			
+			// the parameters that determine the calculated points
+			// (only adaptive samples depend on the size of the window)
+			StringBuilder sb = new StringBuilder();
+			sb.append(numcircles).append(':');
+			for (int i = 0; i < numcircles; i++)  sb.append(iradii[i]).append('/');
+			sb.append(':').append(revolutions).append(':').append(pointdensity);
+			termskey = sb.toString();
+			sb.append(':').append(w.penratio);
+			if (!adaptivesampling)  penkey = sb.toString() + ":penterms";
+			if (adaptivesampling)  sb.append(":adaptive@").append(scale);
+			else  sb.append(usespectrum ? ":fft" : ":direct");
+			key = sb.toString();
+		}
+		
+		protected void Render(Graphics2D g)
+		{
+			final double angleincr = 2.0 * Math.PI/pointdensity;	// increment at which to draw points
+			boolean calculated = true;
+			int numpoints = PolytrochoidEvaluator.PointCount(revolutions, pointdensity);
+			long start;
+
+			g.setColor(Color.blue);
+			resetDiagnostics();
+			if (zoomed) {
+				RenderVisible(g);
+				return;
+			}
+			
+			// stream curves that are too long to keep all of their points
+			long length = PolytrochoidEvaluator.LongPointCount(revolutions, pointdensity);
+			if (streaming || length > STREAMPOINTS) {
+				RenderStream(g, length, angleincr);
+				return;
+			}
+			
+			// reuse the points if we have drawn this curve recently
+			points = cache.Get(key);
+			if (points == null && penkey != null)  points = cache.Get(penkey);
+			if (points != null) {
+				engine = "Cache";
+				drawPoints(g, points.getSize());
+				return;
+			}
+			
+			if (penmoved) {
+				// recompose the points from the pen-independent terms
+				// (calculating the terms first if the other parameters have changed)
+				engine = "Pen terms";
+				start = System.nanoTime();
+				PolytrochoidPenTerms terms = penterms;
+				if (terms == null || !terms.getKey().equals(termskey)) {
+					terms = new PolytrochoidPenTerms(termskey, numpoints);
+					for (int first = 0; first < numpoints; first += SLICESIZE) {
+						CheckCancelled();
+						evaluator.EvaluateTermsParallel(terms.getBase(), terms.getPen(), first,
+														Math.min(first + SLICESIZE, numpoints), angleincr);
+					}
+					penterms = terms;
+				}
+				// (a moving pen reuses one buffer; only where it stops is cached)
+				if (keeppen)  points = new PointBuffer(numpoints);
+				else {
+					if (penpoints == null)  penpoints = new PointBuffer(numpoints);
+					points = penpoints;
+				}
+				terms.Compose(radiidiffs[numcircles-1], points);
+				calctime = System.nanoTime() - start;
+				drawPoints(g, numpoints);
+				if (keeppen)  cache.Put(penkey, points);
+				return;
+			}
+			points = new PointBuffer(numpoints);
+			
+			// calculate coordinates parametrically based on the total angle of rotation
+			// (split into chunks that are calculated in parallel)
+			if (showdiagnostics) {
+				// time a serial calculation of the same points for comparison
+				start = System.nanoTime();
+				points.SetSize(numpoints);
+				for (int first = 0; first < numpoints; first += SLICESIZE) {
+					CheckCancelled();
+					evaluator.EvaluateRange(points, first, Math.min(first + SLICESIZE, numpoints), angleincr);
+				}
+				serialtime = System.nanoTime() - start;
+			}
+			start = System.nanoTime();
+			if (adaptivesampling) {
+				// space the points about one pixel apart along the curve
+				engine = "Adaptive";
+				numpoints = AdaptiveSampler.Sample(evaluator, 0.0, revolutions * 2.0 * Math.PI,
+												   AdaptiveSampler.PIXELSPACING / scale, AdaptiveSampler.MAXSTEP, points);
+			}
+			else if (usespectrum && revolutions == Math.rint(revolutions) &&
+				new PolytrochoidSpectrum(numcircles, iradii, radiidiffs, (long)revolutions).Evaluate(points, numpoints-1)) {
+				// the curve is closed, so the FFT calculated it (possibly with a few more points)
+				engine = "FFT";
+				numpoints = points.getSize();
+			}
+			else if (progressive && !drawpolyline && !drawdensity) {
+				// calculate the points for each pass just before drawing it (below)
+				points.SetSize(numpoints);
+				calculated = false;
+			}
+			else {
+				points.SetSize(numpoints);
+				for (int first = 0; first < numpoints; first += SLICESIZE) {
+					CheckCancelled();
+					evaluator.EvaluateParallel(points, first, Math.min(first + SLICESIZE, numpoints), angleincr);
+				}
+			}
+			calctime = System.nanoTime() - start;
+			CheckCancelled();
+			
+			if (calculated)  drawPoints(g, numpoints);
+			else {
+				// Each pass calculates and draws the points at multiples of its stride that the
+				// previous (coarser) pass skipped, so every point is calculated and drawn just once.
+				start = System.nanoTime();
+				for (int pass = 0; pass < PASSSTRIDES.length; pass++) {
+					int stride = PASSSTRIDES[pass];
+					int skipstride = (pass > 0) ? PASSSTRIDES[pass-1] : 0;
+					long calcstart = System.nanoTime();
+					// (SLICESIZE is a multiple of every stride)
+					for (int first = 0; first < numpoints; first += SLICESIZE) {
+						CheckCancelled();
+						evaluator.EvaluateParallel(points, first, Math.min(first + SLICESIZE, numpoints),
+												   stride, skipstride, angleincr);
+					}
+					calctime += System.nanoTime() - calcstart;
+					start += System.nanoTime() - calcstart;		// don't count it as drawing time
+					drawPoints(g, numpoints, stride, skipstride);
+					passstride = stride;
+					if (stride > 1)  Publish();
+				}
+				drawingtime = System.nanoTime() - start;
+			}
+			cache.Put(key, points);
+		}
+		
+		/* Calculate and draw only the parts of a zoomed curve that may be in the window,
+		   with the point density multiplied by the zoom (these points aren't cached) */
+		private void RenderVisible(Graphics2D g)
+		{
+			long	density = (long)Math.ceil(pointdensity * zoom);
+			long	start = System.nanoTime();
+			
+			density = Math.max(1, Math.min(density, (long)((Integer.MAX_VALUE - 1) / revolutions)));
+			final double angleincr = 2.0 * Math.PI/density;
+			final int numpoints = PolytrochoidEvaluator.PointCount(revolutions, (int)density);
+			
+			// the window (plus a pixel) in the units of the calculated points
+			int[] ranges = evaluator.VisibleRanges(numpoints, angleincr,
+												   -(centerx + 1.0) / scale, (centery - height - 1.0) / scale,
+												   (width + 1.0 - centerx) / scale, (centery + 1.0) / scale);
+			engine = "Culled";
+			curvepoints = numpoints;
+			points = new PointBuffer(SLICESIZE);
+			calctime = System.nanoTime() - start;
+			for (int r = 0; r < ranges.length; r += 2) {
+				for (int first = ranges[r]; first < ranges[r+1]; first += SLICESIZE) {
+					int last = Math.min(first + SLICESIZE, ranges[r+1]);
+					CheckCancelled();
+					start = System.nanoTime();
+					evaluator.EvaluateSlice(points, first, last, angleincr);
+					calctime += System.nanoTime() - start;
+					start = System.nanoTime();
+					if (drawpolyline)  drawPolyline(g, points);
+					else  drawPoints(g, last - first, 1, 0);
+					drawingtime += System.nanoTime() - start;
+				}
+			}
+			serialtime = calctime;
+		}
+		
+		/* Calculate and draw the curve in chunks that are discarded as soon as they are drawn,
+		   stopping early if the picture saturates (this uses the same memory for any length) */
+		private void RenderStream(Graphics2D g, long numpoints, double angleincr)
+		{
+			CurveStreamer stream = new CurveStreamer(evaluator, numpoints, angleincr);
+			long start, lastpublish = System.nanoTime();
+			
+			engine = "Streamed";
+			streamed = true;
+			curvepoints = numpoints;
+			stream.SetRaster(width, height, centerx, centery, scale);
+			while (true) {
+				CheckCancelled();
+				start = System.nanoTime();
+				if (!stream.Next())  break;
+				calctime += System.nanoTime() - start;
+				start = System.nanoTime();
+				stream.Draw(g);
+				drawingtime += System.nanoTime() - start;
+				streamedpoints = stream.getCalculated();
+				if (stream.IsSaturated()) {
+					saturated = true;
+					break;
+				}
+				if (start - lastpublish > PUBLISHDELAY) {
+					Publish();
+					lastpublish = start;
+				}
+			}
+			serialtime = calctime;
+			totalpoints = (int)Math.min(streamedpoints, Integer.MAX_VALUE);
+			uniquepixels = stream.getPixels();
+		}
+		
+		/* Draw numpoints points that have already been calculated
+		   (progressively if requested) */
+		private void drawPoints(Graphics g, int numpoints)
+		{
+			long start = System.nanoTime();
+			
+			if (drawpolyline)  drawPolyline(g, points);
+			else if (drawdensity)  drawDensity(g);
+			else if (progressive) {
+				for (int pass = 0; pass < PASSSTRIDES.length; pass++) {
+					drawPoints(g, numpoints, PASSSTRIDES[pass], (pass > 0) ? PASSSTRIDES[pass-1] : 0);
+					passstride = PASSSTRIDES[pass];
+					if (passstride > 1)  Publish();
+				}
+			}
+			else  drawPoints(g, numpoints, 1, 0);
+			drawingtime = System.nanoTime() - start;
+		}
+		
+		/* Draw every stride'th point except for multiples of skipstride
+		   relative to our "drawing origin" */
+		private void drawPoints(Graphics g, int numpoints, int stride, int skipstride)
+		{
+			final double[] xs = points.getX();
+			final double[] ys = points.getY();
+			
+			for (int i = 0; i < numpoints; i += stride) {
+				if ((i & (SLICESIZE-1)) == 0)  CheckCancelled();
+				if (skipstride > 0 && i % skipstride == 0)  continue;
+				drawPoint(g, centerx + scale * xs[i], centery - scale * ys[i]);
+			}
+		}
+		
+		private void resetDiagnostics()
+		{
+			totalpoints = duplicatepoints = uniquepixels = 0;
+			lastx = lasty = -1;
+		
+			// reuse the visited bitmap unless the window has grown
+			if (visited == null || visited.size() < width * height)
+				  visited = new BitSet(width * height);
+			else  visited.clear();
+		}
+
+		protected void drawPoint(Graphics g, double x, double y)
+		{
+			int ix = (int)Math.round(x);
+			int iy = (int)Math.round(y);
+			boolean revisit = false;
+		
+			++totalpoints;
+			// mark the pixel in the visited bitmap (if it is within the window)
+			if (ix >= 0 && ix < width && iy >= 0 && iy < height) {
+				int pixel = iy * width + ix;
+				if (visited.get(pixel))  revisit = true;
+				else {
+					visited.set(pixel);
+					++uniquepixels;
+				}
+			}
+		
+			if (ix == lastx && iy == lasty)	{
+				++duplicatepoints;
+				if (duplicatemode == DRAW_DUPLICATES) {
+					// we have to use drawLine() to draw a single point
+					g.drawLine(ix, iy, ix, iy);				
+				}
+			}
+			else {
+				if (!revisit || duplicatemode != SKIP_VISITED) {
+					// we have to use drawLine() to draw a single point
+					g.drawLine(ix, iy, ix, iy);
+				}
+				lastx = ix;
+				lasty = iy;
 			}
-			// calculate coordinates relative to our "drawing origin"
-			x = centerx + x;
-			y = centery - y;
-			if (pass == 1) drawPoint(g, x, y);
 		}
-		if (pass == 0)  calctime = System.nanoTime() - start;
-		else  drawingtime = System.nanoTime() - start;
+	
+		/* Draw the points as anti-aliased shading of how often the curve crosses each pixel */
+		protected void drawDensity(Graphics g)
+		{
+			DensityRenderer density = densitybuffer;
+			
+			// reuse the accumulation buffer unless the window's size has changed
+			if (density == null || density.getWidth() != width || density.getHeight() != height) {
+				density = densitybuffer = new DensityRenderer(width, height);
+			}
+			else  density.Clear();
+			density.AccumulateParallel(points, centerx, centery, scale);
+			CheckCancelled();
+			g.drawImage(density.ToneMap(Color.blue), 0, 0, null);
+			totalpoints = points.getSize();
+			uniquepixels = density.getCovered();
 		}
-		while (++pass < 2);
 		
-		if (showdiagnostics)  drawDiagnostics(g, calctime, drawingtime, totalpoints, duplicatepoints);
+		/* Draw the points as a polyline after removing the points that are
+		   within CurveSimplifier.TOLERANCE pixels of the simplified line */
+		protected void drawPolyline(Graphics g, PointBuffer points)
+		{
+			CurveSimplifier.Simplify(points, 0, points.getSize(), CurveSimplifier.TOLERANCE / scale, simplified);
+		
+			int		 count = simplified.getSize();
+			int[]	 ixs = new int[count];
+			int[]	 iys = new int[count];
+			double[] xs = simplified.getX();
+			double[] ys = simplified.getY();
+			for (int i = 0; i < count; i++) {
+				ixs[i] = (int)Math.round(centerx + scale * xs[i]);
+				iys[i] = (int)Math.round(centery - scale * ys[i]);
+			}
+			g.drawPolyline(ixs, iys, count);
+			totalpoints += points.getSize();
+			vertices += count;
+		}
 	}
 
 	public void WindowResized()
@@ -502,6 +992,9 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		SetOrigin();
 		SetScale();
 		SetDrawingParms(numcircles, iradii, penratio);
+		// wait until the window stops changing size before drawing the curve
+		// (the points are cached independently of the size, so that is fast)
+		if (resizetimer != null)  resizetimer.restart();
 		this.repaint();
 	}
 	
@@ -531,13 +1024,13 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 			// Up arrow key increases the selected parameter by one
 			// System.out.println("Received up arrow");
 			IncrSelectedParm();
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == KeyEvent.VK_DOWN) {
 			// Down arrow key decreases the selected parameter by one
 			// System.out.println("Received down arrow");
 			DecrSelectedParm();
-			this.repaint();
+			RequestRender();
 		}
 		
 	}
@@ -561,36 +1054,36 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 			// '-' decreases the point density and repaints the curve
 			if (pointdensity > 100) {
 				pointdensity -= 100;
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == '+' || key == '=') {
 			// '+' (or '=') increases the point density and repaints the curve
 			pointdensity += 100;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '[' || key == '{') {
 			// '[' (or '{') decreases the number of revolutions it takes to draw the curve (and repaints)
 			// Don't allow the value to go below 1.
 			if (revolutions > 1) {
 				--revolutions;
-				this.repaint();
+				RequestRender();
 			}
 		}
 		else if	(key == ']' || key == '}') {
 			// ']' (or '}') increases the number of revolutions it takes to draw the curve (and repaints)
 			++revolutions;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == '<' || key == ',') {
 			// '<' (or ',') decreases the distance between the inner circle's center and the pen (and repaints)
 			SetPenLength(penratio-0.05);
-			this.repaint();
+			RequestRender(true);
 		}
 		else if	(key == '>' || key == '.') {
 			// '>' (or '.') increases the distance between the inner circle's center and the pen (and repaints)
 			SetPenLength(penratio+0.05);
-			this.repaint();
+			RequestRender(true);
 		}
 		else if	(key == 'a' || key == 'A') {
 			// 'a' and 'A' toggle the automatic setting of the num of revolutions
@@ -600,33 +1093,75 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 		else if	(key == 'd' || key == 'D') {
 			// 'd' and 'D' toggle whether diagnostics are drawn onscreen
 			showdiagnostics = !showdiagnostics;
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == 's' || key == 'S') {
-			// 's' and 'S' toggle whether consecutive duplicate points are plotted again
-			skipduplicates = !skipduplicates;
-			this.repaint();
+			// 's' and 'S' cycle between plotting all points, skipping consecutive duplicate
+			// points, and skipping every point in a pixel that was already plotted
+			duplicatemode = (duplicatemode + 1) % 3;
+			RequestRender();
+		}
+		else if	(key == 'l' || key == 'L') {
+			// 'l' and 'L' toggle whether the curve is drawn as a simplified polyline
+			drawpolyline = !drawpolyline;
+			RequestRender();
+		}
+		else if	(key == 'f' || key == 'F') {
+			// 'f' and 'F' toggle whether closed curves are calculated with an inverse FFT
+			usespectrum = !usespectrum;
+			RequestRender();
+		}
+		else if	(key == 'e' || key == 'E') {
+			// 'e' and 'E' toggle whether points are evenly spaced along the curve
+			// (which makes the point density unnecessary)
+			adaptivesampling = !adaptivesampling;
+			RequestRender();
+		}
+		else if	(key == 'g' || key == 'G') {
+			// 'g' and 'G' toggle whether the curve is drawn progressively from coarse to fine
+			progressive = !progressive;
+			RequestRender();
+		}
+		else if	(key == 'h' || key == 'H') {
+			// 'h' and 'H' toggle whether the curve is drawn as anti-aliased density shading
+			drawdensity = !drawdensity;
+			RequestRender();
+		}
+		else if	(key == 'v' || key == 'V') {
+			// 'v' and 'V' write the curve to SVG and PDF files
+			ExportVector();
+		}
+		else if	(key == 't' || key == 'T') {
+			// 't' and 'T' toggle whether every curve is streamed in chunks instead of only very long ones
+			streaming = !streaming;
+			RequestRender();
 		}
 		else if	(key == 'r' || key == 'R') {
 			// 'r' and 'R' cause the same curve to be redrawn
 			// RandomizeParms();
-			this.repaint();
+			RequestRender();
 		}
 		else if	(key == 'q' || key == 'Q') {
 			// 'q' and 'Q' toggle the automatic setting of the point density
 			autoSetDensity = !autoSetDensity;
 			this.repaint();
 		}
+		else if	(key == '0') {
+			// '0' shows the whole curve again
+			view.Reset();
+		}
 		else if	(Character.isDigit(key) && key !='0' && key !='1') {
 			// number keys don't do anything
 		}
 		else if	(key =='\n') {
 			// print out current parameters when 'Enter' is pressed
+			// (in the format read by CurveParms.Parse() and BatchRenderer)
 			System.out.print((int)(revolutions+0.5));
 			for (int i = 0; i < numcircles; i++)   {
 				System.out.print("\t");
 				System.out.print(iradii[i]);
 			}
+			System.out.print("\tpen=" + penratio);
 			System.out.print("\n");
 		}
 		
@@ -639,14 +1174,39 @@ public class PolytrochoidTest2 extends JFrame implements MouseListener, KeyListe
 	public void mouseClicked( MouseEvent event )
 	{
 		RandomizeParms();
-		this.repaint();
+		RequestRender();
+	}
+
+	public void mousePressed( MouseEvent event )
+	{
+		dragx = event.getX();
+		dragpenratio = penratio;
+		pendragged = false;
+	}
+
+	public void mouseReleased( MouseEvent event )
+	{
+		// draw (and cache) the curve where the pen stopped
+		if (pendragged)  RequestRender(true, true);
+		pendragged = false;
 	}
 
-	public void mousePressed( MouseEvent event )	{}
-	public void mouseReleased( MouseEvent event )	{}
 	public void mouseEntered( MouseEvent event )	{}
 	public void mouseExited( MouseEvent event )		{}
 
+	/* These 2 methods are the implementation of the MouseMotionListener interface.
+	   mouseDragged() moves the pen continuously as the mouse moves left or right.
+	 */
+	public void mouseDragged( MouseEvent event )
+	{
+		if (view.IsPanning())  return;		// Shift or right-button drags pan instead
+		SetPenLength(dragpenratio + (event.getX() - dragx) * DRAGSCALE);
+		pendragged = true;
+		RequestRender(true);
+	}
+
+	public void mouseMoved( MouseEvent event )		{}
+
 	public static void main(String[] args)
 	{
 		PolytrochoidTest2 app = new PolytrochoidTest2();
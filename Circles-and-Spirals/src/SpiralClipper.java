@@ -0,0 +1,75 @@
+/*	SpiralClipper.java
+
+	Finds the part of a spiral that can be seen in a window, so that
+	SpiralSampler only calculates the points that will actually be drawn.
+
+	Since the radius of a spiral changes monotonically with the angle, the
+	visible part is a range of angles.  The spiral can only be seen where r is
+	between the distances from its center to the nearest and farthest points
+	of the window, and each of those radii is converted to an angle by solving
+	the spiral's equation for theta.
+
+	Power spirals also wind towards their center forever.  Once consecutive
+	turns are less than SOLIDGAP pixels apart, every pixel inside them would be
+	drawn anyway, so we stop at PowerSolidRadius() and fill that disk instead.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Container;
+import java.awt.Insets;
+
+
+public class SpiralClipper
+{
+	final public static double	SOLIDGAP = 0.5;			// max distance (in pixels) between turns of a solid center
+
+	/* Returns the visible area of a window
+	   (NOTE: right & bottom are coordinates, not insets) */
+	public static Insets VisibleArea(Container window)
+	{
+		Insets insets = window.getInsets();
+		return new Insets(insets.top, insets.left,
+						  window.getHeight() - insets.bottom,
+						  window.getWidth() - insets.right);
+	}
+
+	/* Returns the distance from (centerx, centery) to the nearest point of area
+	   (zero if the center is inside it) */
+	public static double MinVisibleRadius(double centerx, double centery, Insets area)
+	{
+		double dx = Math.max(Math.max(area.left - centerx, centerx - area.right), 0.0);
+		double dy = Math.max(Math.max(area.top - centery, centery - area.bottom), 0.0);
+		return Math.sqrt(dx*dx + dy*dy);
+	}
+
+	/* Returns the distance from (centerx, centery) to the farthest corner of area */
+	public static double MaxVisibleRadius(double centerx, double centery, Insets area)
+	{
+		double dx = Math.max(Math.abs(centerx - area.left), Math.abs(centerx - area.right));
+		double dy = Math.max(Math.abs(centery - area.top), Math.abs(centery - area.bottom));
+		return Math.sqrt(dx*dx + dy*dy);
+	}
+
+	/* Returns the angle at which the logarithmic spiral r = a*e^(b*theta) has radius r */
+	public static double LogarithmicAngle(double a, double b, double r)
+	{
+		return Math.log(r / a) / b;
+	}
+
+	/* Returns the angle at which the power spiral r = (a/theta)^power has radius r */
+	public static double PowerAngle(double a, double power, double r)
+	{
+		return a / Math.pow(r, 1.0 / power);
+	}
+
+	/* Returns the radius inside which the turns of the power spiral r = (a/theta)^power
+	   are less than gap pixels apart.  Going once around from theta shrinks r by about
+	   2π*|dr/dtheta| = 2π*power*r/theta = 2π*power*r^(1 + 1/power)/a, so this solves
+	   2π*power*r^(1 + 1/power)/a = gap for r. */
+	public static double PowerSolidRadius(double a, double power, double gap)
+	{
+		return Math.pow(gap * a / (2.0 * Math.PI * power), power / (1.0 + power));
+	}
+}
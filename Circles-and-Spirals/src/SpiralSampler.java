@@ -0,0 +1,206 @@
+/*	SpiralSampler.java
+
+	Calculates the points of logarithmic and power spirals about PIXELSPACING
+	pixels apart, using recurrences instead of calling trig functions (and exp)
+	for every point.
+
+	The spiral is calculated in bands.  At the start of each band the exact
+	point is calculated and an angle step is chosen from the speed of the
+	spiral (the distance a point moves per radian), so that no two points in
+	the band are more than the spacing apart.  Within the band the angle
+	advances by that constant step, so cos and sin are advanced with the angle
+	addition formulas:
+
+	cos(t + step) = cos(t)cos(step) - sin(t)sin(step)
+	sin(t + step) = sin(t)cos(step) + cos(t)sin(step)
+
+	A band ends when the speed has changed by BANDRATIO, and the next band
+	starts again from exact values, so rounding errors can't accumulate.
+
+	For a logarithmic spiral r = a*e^(b*theta), r is also advanced by multiplying
+	it by the constant e^(b*step).  A power spiral r = (a/theta)^p (a lituus
+	when p = 1/2 or a hyperbolic spiral when p = 1) has no exact recurrence for
+	r, but it only needs a sqrt() or a division for those two powers.
+
+	The points are meant to be drawn as dots, so the angle step is not limited
+	near the center where the points are already less than a pixel apart.
+	Points are relative to the center of the spiral with the y-axis pointing up.
+
+	main() compares the points of the spirals drawn by the spiral windows with
+	the direct formulas and prints the largest errors.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+public class SpiralSampler
+{
+	final public static double	PIXELSPACING = AdaptiveSampler.PIXELSPACING;	// default max distance between points
+	final public static double	BANDRATIO = 1.25;			// max change in speed within a band
+
+	/* Sample the logarithmic spiral r = a*e^(b*theta) (b > 0) outwards from angle tstart
+	   until r >= rmax (that last point is included) and return the number of points */
+	public static int Logarithmic(double a, double b, double tstart, double rmax, PointBuffer points)
+	{
+		return Logarithmic(a, b, tstart, rmax, PIXELSPACING, points);
+	}
+
+	public static int Logarithmic(double a, double b, double tstart, double rmax, double spacing, PointBuffer points)
+	{
+		final double k = Math.sqrt(1.0 + b*b);		// the speed is k*r
+		double	bandstart = tstart;
+		double	r, c, s, t, step, dc, ds, growth, rend;
+
+		points.Clear();
+		while (true) {
+			// exact values at the start of the band
+			r = a * Math.exp(b * bandstart);
+			c = Math.cos(bandstart);
+			s = Math.sin(bandstart);
+			// the spiral is fastest at the end of the band
+			rend = r * BANDRATIO;
+			step = spacing / (k * rend);
+			dc = Math.cos(step);
+			ds = Math.sin(step);
+			growth = Math.exp(b * step);
+
+			// stop before a step would end beyond rend (where it would be too long)
+			int n = 0;
+			do {
+				points.Add(r * c, r * s);
+				if (r >= rmax)  return points.getSize();
+				t = c*dc - s*ds;
+				s = s*dc + c*ds;
+				c = t;
+				r *= growth;
+				++n;
+			}
+			while (r * growth <= rend);
+			bandstart += n * step;
+		}
+	}
+
+	/* Sample the power spiral r = (a/theta)^power (power > 0) inwards from angle tstart
+	   until r <= rmin (that point is not included) and return the number of points */
+	public static int Power(double a, double power, double tstart, double rmin, PointBuffer points)
+	{
+		return Power(a, power, tstart, rmin, PIXELSPACING, points);
+	}
+
+	public static int Power(double a, double power, double tstart, double rmin, double spacing, PointBuffer points)
+	{
+		double	bandstart = tstart;
+		double	r, c, s, t, angle, step, dc, ds, speed, speedend;
+
+		points.Clear();
+		while (true) {
+			// exact values at the start of the band, where the spiral is fastest
+			r = PowerRadius(a, power, bandstart);
+			if (r <= rmin)  return points.getSize();
+			c = Math.cos(bandstart);
+			s = Math.sin(bandstart);
+			speed = PowerSpeed(r, power, bandstart);
+			speedend = speed / BANDRATIO;
+			step = spacing / speed;
+			dc = Math.cos(step);
+			ds = Math.sin(step);
+
+			int n = 0;
+			angle = bandstart;
+			do {
+				points.Add(r * c, r * s);
+				t = c*dc - s*ds;
+				s = s*dc + c*ds;
+				c = t;
+				++n;
+				angle = bandstart + n * step;
+				r = PowerRadius(a, power, angle);
+				if (r <= rmin)  return points.getSize();
+			}
+			while (PowerSpeed(r, power, angle) > speedend);
+			bandstart = angle;
+		}
+	}
+
+	/* r = (a/theta)^power, avoiding pow() for a lituus or a hyperbolic spiral */
+	public static double PowerRadius(double a, double power, double angle)
+	{
+		if (power == 1.0)  return a / angle;
+		else if (power == 0.5)  return Math.sqrt(a / angle);
+		else  return Math.pow(a / angle, power);
+	}
+
+	/* Distance a point on a power spiral moves per radian: sqrt(r^2 + (dr/dtheta)^2)
+	   where dr/dtheta = -power*r/theta */
+	private static double PowerSpeed(double r, double power, double angle)
+	{
+		double q = power / angle;
+		return r * Math.sqrt(1.0 + q*q);
+	}
+
+	/* Returns {largest distance from the spiral, largest gap between points} for points
+	   sampled from angle tstart, where the spiral's radius at angle theta is
+	   a*e^(b*theta) if power is 0 or (a/theta)^power otherwise.  The distance
+	   from the spiral is measured along the radius through each point, with the
+	   angle of the point followed around the turns of the spiral from tstart. */
+	private static double[] Errors(PointBuffer points, double a, double b, double power, double tstart)
+	{
+		double[] xs = points.getX();
+		double[] ys = points.getY();
+		double	 theta = tstart, lastangle = Math.atan2(ys[0], xs[0]);
+		double	 maxerror = 0.0, maxgap = 0.0;
+
+		for (int i = 0; i < points.getSize(); i++) {
+			double angle = Math.atan2(ys[i], xs[i]);
+			double turn = angle - lastangle;
+			// (consecutive points are less than half a turn apart)
+			if (turn > Math.PI)  turn -= 2.0 * Math.PI;
+			else if (turn < -Math.PI)  turn += 2.0 * Math.PI;
+			theta += turn;
+			lastangle = angle;
+			double r = (power == 0.0) ? a * Math.exp(b * theta) : Math.pow(a / theta, power);
+			maxerror = Math.max(maxerror, Math.abs(Math.hypot(xs[i], ys[i]) - r));
+			if (i > 0)  maxgap = Math.max(maxgap, Math.hypot(xs[i] - xs[i-1], ys[i] - ys[i-1]));
+		}
+		return new double[] {maxerror, maxgap};
+	}
+
+	public static void main(String[] args)
+	{
+		final double radius = 170.0;				// radius of the spiral windows (400 x 400 pixels)
+		PointBuffer	points = new PointBuffer();
+		boolean		failed = false;
+
+		// the spirals and ranges that the spiral windows draw, at their normal size and zoomed in 64 times
+		for (double zoom : new double[] {1.0, 64.0}) {
+			double spacing = PIXELSPACING / zoom;
+			double gap = SpiralClipper.SOLIDGAP / zoom;
+			String[] names = {"logarithmic", "hyperbolic", "lituus", "Anthony's"};
+			double[] as = {1.0, 120.0, 6000.0, 6000.0};
+			double[] powers = {0.0, 1.0, 0.5, 0.9};
+			for (int k = 0; k < names.length; k++) {
+				double a = as[k], power = powers[k], tstart, error[];
+				long start = System.nanoTime();
+				if (power == 0.0) {
+					tstart = 0.0;
+					Logarithmic(a, 0.2, tstart, radius, spacing, points);
+					error = Errors(points, a, 0.2, 0.0, tstart);
+				}
+				else {
+					tstart = SpiralClipper.PowerAngle(a, power, radius);
+					Power(a, power, tstart, SpiralClipper.PowerSolidRadius(a, power, gap), spacing, points);
+					error = Errors(points, a, 0.0, power, tstart);
+				}
+				double time = (System.nanoTime() - start) * 0.000001;
+				// the errors should be far below a pixel and the gaps no longer than the spacing
+				boolean ok = error[0] * zoom < 0.001 && error[1] <= spacing * (1.0 + 1e-9);
+				failed |= !ok;
+				System.out.println(String.format("%-12s zoom %4.0f: %8d points, max error %.3g px, max gap %.4f px " +
+												 "(spacing %.4f) in %.1f ms%s", names[k], zoom, points.getSize(),
+												 error[0] * zoom, error[1] * zoom, spacing * zoom, time,
+												 ok ? "" : "  FAILED"));
+			}
+		}
+		if (failed)  System.exit(1);
+	}
+}
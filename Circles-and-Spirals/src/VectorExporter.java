@@ -0,0 +1,328 @@
+/*	VectorExporter.java
+
+	Writes curves to SVG or PDF files for printing.  Each curve is simplified
+	with CurveSimplifier first (every removed point is within TOLERANCE of the
+	line that replaces it, so the output looks the same as the points at the
+	window's size) and written as one stroked path.
+
+	The document is streamed through a direct ByteBuffer to a FileChannel as
+	it is written instead of being built as a String, and the coordinates are
+	written with at most 2 decimals, so a curve of a million points makes a
+	file of a few hundred KB.
+
+	Usage:  Open() a file (the format depends on its extension), AddCurve()
+	as many times as needed, then Close().  Export() does all three and
+	returns a summary with the file size and write time, and WriteFiles()
+	writes an SVG and a PDF and prints their summaries.
+
+	A curve may be given with ranges of its points {first, last, ...} (e.g.
+	the parts of a zoomed curve that are in the window), and each range is
+	written as a separate subpath, so the gaps between them aren't drawn.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+
+public abstract class VectorExporter
+{
+	final public static int		BUFFERSIZE = 65536;		// bytes written to the channel at a time
+	final public static double	TOLERANCE = CurveSimplifier.TOLERANCE;	// max error of the paths in pixels
+	final public static double	LINEWIDTH = 0.5;		// width of the paths in pixels (points in a PDF)
+
+	protected FileChannel	channel;
+	protected ByteBuffer	buffer = ByteBuffer.allocateDirect(BUFFERSIZE);
+	protected long			written;				// bytes already written to the channel
+	protected int			width, height;
+	protected PointBuffer	simplified = new PointBuffer();
+	protected long			numpoints, numvertices;	// totals of every curve added
+	private byte[]			digits = new byte[20];
+
+	protected VectorExporter(File file, int width, int height) throws IOException
+	{
+		this.width = width;
+		this.height = height;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+								   StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/* Start a document of width x height pixels (a PDF if the file name ends with .pdf, otherwise an SVG) */
+	public static VectorExporter Open(File file, int width, int height) throws IOException
+	{
+		VectorExporter exporter;
+
+		if (file.getName().toLowerCase().endsWith(".pdf"))  exporter = new PdfExporter(file, width, height);
+		else  exporter = new SvgExporter(file, width, height);
+		exporter.BeginDocument();
+		return exporter;
+	}
+
+	/* Write the curves to file and return a summary of the result
+	   (or null if it couldn't be written, in which case the error is printed) */
+	public static String Export(File file, int width, int height, PointBuffer[] curves, Color[] colors,
+								double centerx, double centery, double scale)
+	{
+		return Export(file, width, height, curves, null, colors, centerx, centery, scale);
+	}
+
+	/* Same, but ranges[i] (unless ranges or it is null) gives the ranges of points of curves[i] to write */
+	public static String Export(File file, int width, int height, PointBuffer[] curves, int[][] ranges, Color[] colors,
+								double centerx, double centery, double scale)
+	{
+		long start = System.nanoTime();
+		VectorExporter exporter = null;
+
+		try {
+			exporter = Open(file, width, height);
+			for (int i = 0; i < curves.length; i++) {
+				int[] curveranges = (ranges == null || ranges[i] == null) ? new int[] {0, curves[i].getSize()} : ranges[i];
+				exporter.AddCurve(curves[i], curveranges, centerx, centery, scale, colors[i]);
+			}
+			exporter.Close();
+		}
+		catch (IOException e) {
+			System.err.println("Error in Export(): " + file + ": " + e.getMessage());
+			if (exporter != null) {
+				try {
+					exporter.channel.close();
+				}
+				catch (IOException e2) {}
+			}
+			return null;
+		}
+		return String.format("%s\t%d points\t%d vertices\t%d bytes\t%.1f ms", file.getName(), exporter.numpoints,
+							 exporter.numvertices, exporter.written, (System.nanoTime() - start) * 0.000001);
+	}
+
+	/* Write basename.svg and basename.pdf and print their summaries */
+	public static void WriteFiles(String basename, int width, int height, PointBuffer[] curves, Color[] colors,
+								  double centerx, double centery, double scale)
+	{
+		WriteFiles(basename, width, height, curves, null, colors, centerx, centery, scale);
+	}
+
+	/* Same, with the ranges of points to write (see Export()) */
+	public static void WriteFiles(String basename, int width, int height, PointBuffer[] curves, int[][] ranges,
+								  Color[] colors, double centerx, double centery, double scale)
+	{
+		for (String extension : new String[] {".svg", ".pdf"}) {
+			String summary = Export(new File(basename + extension), width, height, curves, ranges, colors,
+									centerx, centery, scale);
+			if (summary != null)  System.out.println(summary);
+		}
+	}
+
+	/* Add the points drawn at (centerx + scale*x, centery - scale*y) as a path of the given color
+	   and return the number of vertices kept */
+	public int AddCurve(PointBuffer points, double centerx, double centery, double scale, Color color) throws IOException
+	{
+		return AddCurve(points, new int[] {0, points.getSize()}, centerx, centery, scale, color);
+	}
+
+	/* Same, but only for the ranges of points {first, last, ...} (each excluding its last index),
+	   each as a subpath of the path */
+	public int AddCurve(PointBuffer points, int[] ranges, double centerx, double centery, double scale, Color color)
+		throws IOException
+	{
+		int total = 0;
+
+		for (int r = 0; r < ranges.length; r += 2) {
+			int count = CurveSimplifier.Simplify(points, ranges[r], ranges[r+1], TOLERANCE / scale, simplified);
+			double[] xs = simplified.getX();
+			double[] ys = simplified.getY();
+
+			numpoints += ranges[r+1] - ranges[r];
+			if (count == 0)  continue;
+			if (total == 0)  BeginPath(color);
+			for (int i = 0; i < count; i++)  Vertex(i, centerx + scale * xs[i], centery - scale * ys[i]);
+			total += count;
+		}
+		numvertices += total;
+		if (total > 0)  EndPath();
+		return total;
+	}
+
+	/* Finish the document and close the file */
+	public void Close() throws IOException
+	{
+		EndDocument();
+		Flush();
+		channel.close();
+	}
+
+	/* Returns the number of bytes written so far */
+	public long getBytes()
+	{
+		return written + buffer.position();
+	}
+
+	// The format's parts of the document (y is measured down from the top, as in the window)
+	protected abstract void BeginDocument() throws IOException;
+	protected abstract void BeginPath(Color color) throws IOException;
+	protected abstract void Vertex(int index, double x, double y) throws IOException;
+	protected abstract void EndPath() throws IOException;
+	protected abstract void EndDocument() throws IOException;
+
+	/* Write the buffer to the channel */
+	protected void Flush() throws IOException
+	{
+		buffer.flip();
+		while (buffer.hasRemaining())  written += channel.write(buffer);
+		buffer.clear();
+	}
+
+	/* Write an ASCII string */
+	protected void Print(String s) throws IOException
+	{
+		for (int i = 0; i < s.length(); i++) {
+			if (!buffer.hasRemaining())  Flush();
+			buffer.put((byte)s.charAt(i));
+		}
+	}
+
+	/* Write a number with at most 2 decimals (without making any Strings) */
+	protected void Print(double value) throws IOException
+	{
+		long hundredths = Math.round(value * 100.0);
+		int	 count = 0;
+
+		if (buffer.remaining() < digits.length + 4)  Flush();
+		if (hundredths < 0) {
+			buffer.put((byte)'-');
+			hundredths = -hundredths;
+		}
+		long whole = hundredths / 100;
+		int fraction = (int)(hundredths % 100);
+		do {
+			digits[count++] = (byte)('0' + whole % 10);
+			whole /= 10;
+		}
+		while (whole > 0);
+		while (count > 0)  buffer.put(digits[--count]);
+		if (fraction != 0) {
+			buffer.put((byte)'.');
+			buffer.put((byte)('0' + fraction / 10));
+			if (fraction % 10 != 0)  buffer.put((byte)('0' + fraction % 10));
+		}
+	}
+
+	/** Writes an SVG document with one <path> per curve */
+	private static class SvgExporter extends VectorExporter
+	{
+		public SvgExporter(File file, int width, int height) throws IOException
+		{
+			super(file, width, height);
+		}
+
+		protected void BeginDocument() throws IOException
+		{
+			Print("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+			Print("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"" + width + "\" height=\"" + height +
+				  "\" viewBox=\"0 0 " + width + " " + height + "\">\n");
+			Print("<rect width=\"100%\" height=\"100%\" fill=\"white\"/>\n");
+		}
+
+		protected void BeginPath(Color color) throws IOException
+		{
+			Print(String.format("<path fill=\"none\" stroke=\"#%06x\" stroke-width=\"", color.getRGB() & 0xFFFFFF));
+			Print(LINEWIDTH);
+			Print("\" stroke-linejoin=\"round\" stroke-linecap=\"round\" d=\"");
+		}
+
+		protected void Vertex(int index, double x, double y) throws IOException
+		{
+			if (index == 0)  Print("M");
+			else if (index == 1)  Print(" L");
+			else if (index % 8 == 0)  Print("\n");			// keep the lines short
+			Print(" ");
+			Print(x);
+			Print(" ");
+			Print(y);
+		}
+
+		protected void EndPath() throws IOException
+		{
+			Print("\"/>\n");
+		}
+
+		protected void EndDocument() throws IOException
+		{
+			Print("</svg>\n");
+		}
+	}
+
+	/** Writes a one-page PDF document whose content stream strokes one path per curve */
+	private static class PdfExporter extends VectorExporter
+	{
+		private long[]	offsets = new long[6];			// byte offset of each object (1 to 5)
+		private long	streamstart;					// offset of the content stream's data
+
+		public PdfExporter(File file, int width, int height) throws IOException
+		{
+			super(file, width, height);
+		}
+
+		protected void BeginDocument() throws IOException
+		{
+			Print("%PDF-1.4\n");
+			offsets[1] = getBytes();
+			Print("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+			offsets[2] = getBytes();
+			Print("2 0 obj\n<< /Type /Pages /Kids [3 0 R] /Count 1 >>\nendobj\n");
+			offsets[3] = getBytes();
+			Print("3 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + width + " " + height +
+				  "] /Contents 4 0 R >>\nendobj\n");
+			// the length of the stream isn't known until it has been written, so it is object 5
+			offsets[4] = getBytes();
+			Print("4 0 obj\n<< /Length 5 0 R >>\nstream\n");
+			streamstart = getBytes();
+			Print("1 J 1 j ");
+			Print(LINEWIDTH);
+			Print(" w\n");
+		}
+
+		protected void BeginPath(Color color) throws IOException
+		{
+			Print(color.getRed() / 255.0);
+			Print(" ");
+			Print(color.getGreen() / 255.0);
+			Print(" ");
+			Print(color.getBlue() / 255.0);
+			Print(" RG\n");
+		}
+
+		protected void Vertex(int index, double x, double y) throws IOException
+		{
+			// PDF's y-axis points up from the bottom of the page
+			Print(x);
+			Print(" ");
+			Print(height - y);
+			Print((index == 0) ? " m\n" : " l\n");
+		}
+
+		protected void EndPath() throws IOException
+		{
+			Print("S\n");
+		}
+
+		protected void EndDocument() throws IOException
+		{
+			long length = getBytes() - streamstart - 1;	// (the last newline ends the stream)
+
+			Print("endstream\nendobj\n");
+			offsets[5] = getBytes();
+			Print("5 0 obj\n" + length + "\nendobj\n");
+			long xref = getBytes();
+			Print("xref\n0 6\n0000000000 65535 f \n");
+			for (int i = 1; i <= 5; i++)  Print(String.format("%010d 00000 n \n", offsets[i]));
+			Print("trailer\n<< /Size 6 /Root 1 0 R >>\nstartxref\n" + xref + "\n%%EOF\n");
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*	ZoomPan.java
+
+	Lets the mouse wheel zoom a window's drawing in and out around the mouse
+	pointer and dragging move (pan) it.  The window draws each point at
+
+	screen x = centerx + panx + zoom * x
+	screen y = centery + pany - zoom * y
+
+	where (centerx, centery) is the center of the window and (x, y) is the
+	point at its normal size.  If needshift is true, only drags with the Shift
+	key down (or with the right mouse button) pan, so that plain drags can be
+	used for something else.
+
+	Windows without a KeyListener of their own can call AddResetKey() so
+	that a key (e.g. 0) goes back to the normal size and position.
+
+	Circles-and-Spirals contributors
+	October 19, 2026
+ */
+
+import java.awt.Component;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import javax.swing.SwingUtilities;
+
+
+public class ZoomPan extends MouseAdapter
+{
+	final public static double	ZOOMSTEP = 1.25;		// zoom factor per click of the mouse wheel
+	final public static double	MINZOOM = 0.125;
+	final public static double	MAXZOOM = 1000.0;
+
+	protected Component	target;						// the window that is zoomed
+	protected boolean	needshift;					// pan only with Shift or the right button?
+	protected Runnable	changed;					// called when the zoom or pan changes
+	protected double	zoom = 1.0;
+	protected double	panx, pany;					// offset of the drawing's center in pixels
+	private int			dragx, dragy;				// last mouse position while panning
+	private boolean		panning;
+
+	public ZoomPan(Component target, boolean needshift, Runnable changed)
+	{
+		this.target = target;
+		this.needshift = needshift;
+		this.changed = changed;
+		target.addMouseListener(this);
+		target.addMouseMotionListener(this);
+		target.addMouseWheelListener(this);
+	}
+
+	/* Zoom and pan a window that just needs to be repainted when they change */
+	public ZoomPan(final Component target)
+	{
+		this(target, false, new Runnable() {
+			public void run() {
+				target.repaint();
+			}
+		});
+	}
+
+	public double getZoom()
+	{
+		return zoom;
+	}
+
+	public double getPanX()
+	{
+		return panx;
+	}
+
+	public double getPanY()
+	{
+		return pany;
+	}
+
+	/* Returns true unless the drawing is at its normal size and position */
+	public boolean IsZoomed()
+	{
+		return zoom != 1.0 || panx != 0.0 || pany != 0.0;
+	}
+
+	/* Go back to the normal size and position */
+	public void Reset()
+	{
+		zoom = 1.0;
+		panx = pany = 0.0;
+		changed.run();
+	}
+
+	/* Reset() when key is typed in the target window */
+	public void AddResetKey(final char key)
+	{
+		target.addKeyListener(new KeyAdapter() {
+			public void keyTyped(KeyEvent event) {
+				if (event.getKeyChar() == key)  Reset();
+			}
+		});
+	}
+
+	public void mouseWheelMoved(MouseWheelEvent event)
+	{
+		double newzoom = zoom * Math.pow(ZOOMSTEP, -event.getPreciseWheelRotation());
+
+		newzoom = Math.max(MINZOOM, Math.min(newzoom, MAXZOOM));
+		if (newzoom == zoom)  return;
+
+		// keep the point under the mouse pointer where it is
+		double px = event.getX() - target.getWidth() * 0.5;
+		double py = event.getY() - target.getHeight() * 0.5;
+		panx = px - (px - panx) * newzoom / zoom;
+		pany = py - (py - pany) * newzoom / zoom;
+		zoom = newzoom;
+		changed.run();
+	}
+
+	public void mousePressed(MouseEvent event)
+	{
+		panning = !needshift || event.isShiftDown() || SwingUtilities.isRightMouseButton(event);
+		dragx = event.getX();
+		dragy = event.getY();
+	}
+
+	public void mouseReleased(MouseEvent event)
+	{
+		panning = false;
+	}
+
+	public void mouseDragged(MouseEvent event)
+	{
+		if (!panning)  return;
+		panx += event.getX() - dragx;
+		pany += event.getY() - dragy;
+		dragx = event.getX();
+		dragy = event.getY();
+		changed.run();
+	}
+
+	/* Returns true if the mouse is being dragged to pan */
+	public boolean IsPanning()
+	{
+		return panning;
+	}
+}